@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.benchmark;
+
+import com.codelanx.codelanxlib.command.CommandNode;
+import com.codelanx.codelanxlib.command.CommandStatus;
+import com.codelanx.codelanxlib.command.TabInfo;
+import com.codelanx.codelanxlib.config.Lang;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A synthetic {@link CommandNode} which does nothing when executed, used to
+ * build command trees of a given size for benchmarking
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class BenchmarkCommand extends CommandNode<Plugin> {
+
+    /** The info shown for every benchmark command */
+    private static final Lang INFO = Lang.createLang("A synthetic benchmark command");
+    /** The name of this command */
+    private final String name;
+    /** The arguments which lead from the root of the tree to this command */
+    private final String[] path;
+    /** The paths of every command below this one, only set on a root */
+    private String[][] paths = new String[0][];
+
+    //Creates a detached command, reached from the root by the passed path
+    private BenchmarkCommand(String name, String... path) {
+        super(BenchmarkServer.getPlugin());
+        this.name = name;
+        this.path = path;
+    }
+
+    /**
+     * Builds a tree of {@link BenchmarkCommand} objects breadth-first, where
+     * every command has up to {@code branching} subcommands, until the tree
+     * holds {@code size} commands. Each command also has the
+     * {@link com.codelanx.codelanxlib.command.HelpCommand} every node is given
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param size The number of commands in the tree, including the root
+     * @param branching The maximum number of subcommands per command
+     * @return The root of the new tree
+     */
+    public static BenchmarkCommand tree(int size, int branching) {
+        BenchmarkCommand root = new BenchmarkCommand("bench");
+        List<BenchmarkCommand> queue = new ArrayList<>(size);
+        queue.add(root);
+        for (int i = 0; queue.size() < size; i++) {
+            BenchmarkCommand parent = queue.get(i);
+            BenchmarkCommand[] children = new BenchmarkCommand[Math.min(branching, size - queue.size())];
+            for (int c = 0; c < children.length; c++) {
+                String name = "sub" + c;
+                String[] path = Arrays.copyOf(parent.path, parent.path.length + 1);
+                path[parent.path.length] = name;
+                children[c] = new BenchmarkCommand(name, path);
+            }
+            parent.addChild(children);
+            queue.addAll(Arrays.asList(children));
+        }
+        root.paths = queue.stream().skip(1).map(c -> c.path).toArray(String[][]::new);
+        return root;
+    }
+
+    /**
+     * Registers this command with the stand-in server, the same way a plugin
+     * would register its own command. Commands executed through the returned
+     * {@link PluginCommand} are dispatched through the node's trusted executor
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The registered {@link PluginCommand}
+     */
+    public PluginCommand register() {
+        PluginCommand back = BenchmarkServer.newCommand(this.getName(), null);
+        this.registerAsBukkitCommand();
+        return back;
+    }
+
+    /**
+     * Returns the arguments leading to every command below this one, in
+     * breadth-first order. Only populated for the root of a built tree
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The paths of every command in the tree, excluding the root
+     */
+    public String[][] getPaths() {
+        return this.paths;
+    }
+
+    @Override
+    public CommandStatus execute(CommandSender sender, String... args) {
+        return CommandStatus.SUCCESS;
+    }
+
+    @Override
+    protected List<String> tabComplete(CommandSender sender, String... args) {
+        return TabInfo.BLANK_TAB_COMPLETE;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    protected String usage() {
+        return "<player> [amount]";
+    }
+
+    @Override
+    public Lang info() {
+        return BenchmarkCommand.INFO;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.benchmark;
+
+import com.codelanx.codelanxlib.util.RuntimeCommandSender;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+
+/**
+ * A {@link CommandSender} with every permission, which counts the messages
+ * sent to it rather than logging them, so that output does not dominate the
+ * cost of what is being measured
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public class BenchmarkSender extends RuntimeCommandSender {
+
+    /** The number of messages sent to this sender */
+    private long received = 0;
+
+    @Override
+    public void sendMessage(String message) {
+        this.received++;
+    }
+
+    @Override
+    public void sendMessage(String[] messages) {
+        this.received += messages.length;
+    }
+
+    @Override
+    public Server getServer() {
+        return BenchmarkServer.getPlugin().getServer();
+    }
+
+    @Override
+    public String getName() {
+        return "BENCHMARK";
+    }
+
+    /**
+     * Returns the number of messages sent to this sender
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of messages received
+     */
+    public long getReceived() {
+        return this.received;
+    }
+
+}
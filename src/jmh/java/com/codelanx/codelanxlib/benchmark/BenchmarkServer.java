@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.benchmark;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A minimal stand-in for a running Bukkit server, used to benchmark the
+ * library outside of one. The {@link Server} and {@link Plugin} given out are
+ * proxies which answer the handful of calls the benchmarked code makes, and
+ * return a default value for everything else
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class BenchmarkServer {
+
+    /** Shared logger for the stand-in server and plugin */
+    private static final Logger LOGGER = Logger.getLogger(BenchmarkServer.class.getName());
+    /** Commands handed out by {@link Server#getPluginCommand(String)} */
+    private static final Map<String, PluginCommand> COMMANDS = new ConcurrentHashMap<>();
+    /** The stand-in {@link Server} */
+    private static final Server SERVER = BenchmarkServer.proxy(Server.class, BenchmarkServer::onServerCall);
+    /** The stand-in {@link Plugin} that owns every benchmarked command */
+    private static final Plugin PLUGIN = BenchmarkServer.proxy(Plugin.class, BenchmarkServer::onPluginCall);
+    /** The description of {@link #PLUGIN} */
+    private static final PluginDescriptionFile DESCRIPTION
+            = new PluginDescriptionFile("Benchmark", "0.3.1", BenchmarkServer.class.getName());
+
+    static {
+        BenchmarkServer.LOGGER.setLevel(Level.WARNING);
+        Bukkit.setServer(BenchmarkServer.SERVER);
+    }
+
+    private BenchmarkServer() {
+    }
+
+    /**
+     * Returns the stand-in {@link Plugin}, installing the stand-in
+     * {@link Server} into {@link Bukkit} if it is not already
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The stand-in {@link Plugin}
+     */
+    public static Plugin getPlugin() {
+        return BenchmarkServer.PLUGIN;
+    }
+
+    /**
+     * Creates a {@link PluginCommand} owned by the stand-in {@link Plugin},
+     * which is returned from {@link Server#getPluginCommand(String)} from then
+     * on. Executing it goes through the same checks as a real server would
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param name The name of the command
+     * @param executor The {@link CommandExecutor} to set, or {@code null} to
+     *                 leave it for the command's owner to set
+     * @return The new {@link PluginCommand}
+     */
+    public static PluginCommand newCommand(String name, CommandExecutor executor) {
+        PluginCommand back;
+        try {
+            Constructor<PluginCommand> c = PluginCommand.class.getDeclaredConstructor(String.class, Plugin.class);
+            c.setAccessible(true);
+            back = c.newInstance(name, BenchmarkServer.getPlugin());
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Unable to create PluginCommand '" + name + "'", ex);
+        }
+        if (executor != null) {
+            back.setExecutor(executor);
+        }
+        BenchmarkServer.COMMANDS.put(name, back);
+        return back;
+    }
+
+    //Answers calls made to the stand-in server
+    private static Object onServerCall(Object proxy, Method m, Object[] args) {
+        switch (m.getName()) {
+            case "getLogger":
+                return BenchmarkServer.LOGGER;
+            case "getName":
+                return "BenchmarkServer";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "1.8-R0.1-SNAPSHOT";
+            case "getPluginCommand":
+                return BenchmarkServer.COMMANDS.get((String) args[0]);
+            case "getOnlinePlayers":
+                return Collections.emptyList();
+            case "getOfflinePlayers":
+                return new OfflinePlayer[0];
+            default:
+                return BenchmarkServer.defaultValue(proxy, m, args);
+        }
+    }
+
+    //Answers calls made to the stand-in plugin
+    private static Object onPluginCall(Object proxy, Method m, Object[] args) {
+        switch (m.getName()) {
+            case "getName":
+                return BenchmarkServer.DESCRIPTION.getName();
+            case "getDescription":
+                return BenchmarkServer.DESCRIPTION;
+            case "isEnabled":
+                return true;
+            case "getLogger":
+                return BenchmarkServer.LOGGER;
+            case "getServer":
+                return BenchmarkServer.SERVER;
+            default:
+                return BenchmarkServer.defaultValue(proxy, m, args);
+        }
+    }
+
+    //Handles Object methods, and returns the zero value of anything else
+    private static Object defaultValue(Object proxy, Method m, Object[] args) {
+        switch (m.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "BenchmarkServer$" + m.getDeclaringClass().getSimpleName();
+        }
+        Class<?> type = m.getReturnType();
+        return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    //Creates a proxy of the passed interface which delegates to the handler
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(BenchmarkServer.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+}
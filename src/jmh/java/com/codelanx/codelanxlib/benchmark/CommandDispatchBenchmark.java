@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.benchmark;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures executing and tab completing commands through a
+ * {@link PluginCommand}, the way Bukkit does, across trees of increasing size.
+ * Every command in the tree is visited in turn, so deeper paths are weighed by
+ * how many of them there are. Dispatch is measured both through the trusted
+ * executor given to Bukkit on registration, and through a node set directly as
+ * an executor, which verifies its caller on every call
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CommandDispatchBenchmark {
+
+    /** The number of commands in the tree */
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+    /** The sender executing every command */
+    private final CommandSender sender = new BenchmarkSender();
+    /** Dispatches through the node's trusted executor */
+    private PluginCommand trusted;
+    /** Dispatches through {@link BenchmarkCommand#onCommand} directly */
+    private PluginCommand guarded;
+    /** The arguments for every command in the tree */
+    private String[][] paths;
+    /** The arguments for every command with its last one partly typed */
+    private String[][] partials;
+    /** The index of the next path to use */
+    private int next = 0;
+
+    /**
+     * Builds the tree and registers it with the stand-in server
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    @Setup
+    public void setup() {
+        BenchmarkCommand root = BenchmarkCommand.tree(this.size, 10);
+        root.compileRoutes();
+        this.trusted = root.register();
+        this.guarded = BenchmarkServer.newCommand("guarded", root);
+        this.paths = root.getPaths();
+        this.partials = Arrays.stream(this.paths).map(p -> {
+            String[] back = p.clone();
+            back[back.length - 1] = back[back.length - 1].substring(0, 2);
+            return back;
+        }).toArray(String[][]::new);
+    }
+
+    /**
+     * Executes a command through the trusted executor
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The result of the execution
+     */
+    @Benchmark
+    public boolean dispatchTrusted() {
+        return this.trusted.execute(this.sender, "bench", this.paths[this.advance()]);
+    }
+
+    /**
+     * Executes a command through the caller-verifying
+     * {@link BenchmarkCommand#onCommand}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The result of the execution
+     */
+    @Benchmark
+    public boolean dispatchGuarded() {
+        return this.guarded.execute(this.sender, "bench", this.paths[this.advance()]);
+    }
+
+    /**
+     * Tab completes the partly typed last argument of a command
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The possible completions
+     */
+    @Benchmark
+    public List<String> tabComplete() {
+        return this.trusted.tabComplete(this.sender, "bench", this.partials[this.advance()]);
+    }
+
+    //Returns the index of the next path, wrapping around
+    private int advance() {
+        int back = this.next;
+        this.next = back + 1 == this.paths.length ? 0 : back + 1;
+        return back;
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.benchmark;
+
+import com.codelanx.codelanxlib.command.CommandNode;
+import com.codelanx.codelanxlib.command.CommandStatus;
+import com.codelanx.codelanxlib.command.HelpCommand;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering {@link HelpCommand} output for trees of increasing size,
+ * both when its pages must be rebuilt and when they are already cached, as
+ * well as {@link CommandNode#filterUsage(String)} which builds help titles
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class HelpBenchmark {
+
+    /** The number of commands in the tree */
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+    /** The sender requesting help */
+    private final CommandSender sender = new BenchmarkSender();
+    /** The help command of the tree's root */
+    private HelpCommand<Plugin> help;
+    /** The usage of a command nested a few levels deep */
+    private String usage;
+
+    /**
+     * Builds the tree
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    @Setup
+    public void setup() {
+        BenchmarkCommand root = BenchmarkCommand.tree(this.size, 10);
+        this.help = root.getHelpOutput();
+        String[][] paths = root.getPaths();
+        this.usage = root.getChild(paths[paths.length - 1]).getUsage();
+    }
+
+    /**
+     * Builds the help pages for a sender and shows the first
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The result of the help command
+     */
+    @Benchmark
+    public CommandStatus buildPages() {
+        this.help.setItemsPerPage(5); //drops the cached pages
+        return this.help.execute(this.sender, "1");
+    }
+
+    /**
+     * Shows the first help page from the cached pages
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The result of the help command
+     */
+    @Benchmark
+    public CommandStatus cachedPage() {
+        return this.help.execute(this.sender, "1");
+    }
+
+    /**
+     * Strips the argument tags from a nested command's usage
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The filtered usage
+     */
+    @Benchmark
+    public String filterUsage() {
+        return CommandNode.filterUsage(this.usage);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.benchmark;
+
+import com.codelanx.codelanxlib.util.Paginator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures building a {@link Paginator} and rendering one of its pages, for
+ * both a copied list of content and a view over it
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PaginatorBenchmark {
+
+    /** The number of lines of content */
+    @Param({"10", "100", "1000", "10000"})
+    public int items;
+    /** The content to paginate */
+    private List<String> content;
+
+    /**
+     * Creates the content
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    @Setup
+    public void setup() {
+        BenchmarkServer.getPlugin(); //installs the stand-in server
+        this.content = IntStream.range(0, this.items)
+                .mapToObj(i -> "&e/bench sub" + i + " <player> [amount] &f- A synthetic benchmark command")
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Copies the content into a new {@link Paginator} and renders the first
+     * page
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The first page
+     */
+    @Benchmark
+    public String copyFirstPage() {
+        return new Paginator("Benchmark", 5, this.content).getPage(1);
+    }
+
+    /**
+     * Creates a {@link Paginator} view of the content and renders the last
+     * page
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The last page
+     */
+    @Benchmark
+    public String viewLastPage() {
+        Paginator back = Paginator.view("Benchmark", 5, this.content);
+        return back.getPage(back.size());
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.benchmark;
+
+import com.codelanx.codelanxlib.command.TabInfo;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures {@link TabInfo#apply(CommandSender, String...)} over large lists
+ * of candidates, both for static values and for values from a
+ * {@link java.util.function.Supplier}, which must be filtered on every call
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class TabInfoBenchmark {
+
+    /** The number of candidates mapped for each argument */
+    @Param({"100", "1000", "10000"})
+    public int candidates;
+    /** The sender tabbing */
+    private final CommandSender sender = new BenchmarkSender();
+    /** Static candidates at argument 0, supplied candidates at argument 1 */
+    private final TabInfo info = new TabInfo();
+    /** A prefix matching a handful of the candidates */
+    private String prefix;
+
+    /**
+     * Maps the candidates, named {@code player0} onwards
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    @Setup
+    public void setup() {
+        List<String> names = IntStream.range(0, this.candidates)
+                .mapToObj(i -> "player" + i).collect(Collectors.toList());
+        this.info.map(0, names);
+        this.info.map(1, () -> names);
+        this.prefix = "player" + (this.candidates / 10 - 1); //matches up to eleven names
+    }
+
+    /**
+     * Completes a prefix against static candidates
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The matching candidates
+     */
+    @Benchmark
+    public List<String> staticPrefix() {
+        return this.info.apply(this.sender, this.prefix);
+    }
+
+    /**
+     * Completes an empty argument against static candidates
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return Every candidate
+     */
+    @Benchmark
+    public List<String> staticEmpty() {
+        return this.info.apply(this.sender, "");
+    }
+
+    /**
+     * Completes a prefix against supplied candidates
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The matching candidates
+     */
+    @Benchmark
+    public List<String> suppliedPrefix() {
+        return this.info.apply(this.sender, "", this.prefix);
+    }
+
+}
@@ -23,10 +23,15 @@ import com.codelanx.commons.logging.Debugger;
 import com.codelanx.commons.logging.Logging;
 import com.codelanx.commons.util.Reflections;
 import com.codelanx.commons.util.Scheduler;
+import com.codelanx.codelanxlib.econ.EconomyListener;
 import com.codelanx.codelanxlib.econ.VaultProxyListener;
+import com.codelanx.codelanxlib.internal.InternalPerms;
 import com.codelanx.codelanxlib.listener.ListenerManager;
 import com.codelanx.codelanxlib.logging.PluginDebugOpts;
+import com.codelanx.codelanxlib.permission.PermissionListener;
+import com.codelanx.codelanxlib.permission.Permissions;
 import com.codelanx.codelanxlib.serialize.SerializationFactory;
+import com.codelanx.codelanxlib.util.PlayerListener;
 import com.codelanx.codelanxlib.util.ReflectBukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.mcstats.Metrics;
@@ -47,21 +52,26 @@ public class CodelanxLib extends JavaPlugin {
     }
 
     /**
-     * Reports metrics to <a href="http://mcstats.org/">MCStats</a>, and hooks
-     * the plugin loggers for {@link Debugger}
+     * Reports metrics to <a href="http://mcstats.org/">MCStats</a>, hooks
+     * the plugin loggers for {@link Debugger}, and registers internal
+     * permissions
      * <br><br>
      * {@inheritDoc}
      * 
      * @since 0.0.1
-     * @version 0.1.0
+     * @version 0.3.1
      */
     @Override
     public void onEnable() {
         Logging.setNab(() -> ReflectBukkit.getCallingPlugin(2).getLogger());
         Debugger.DebugUtil.setOps(PluginDebugOpts::getPluginOpts);
         PluginDebugOpts.hookBukkit();
+        Permissions.register(InternalPerms.class);
+        new PermissionListener(this).register();
+        new PlayerListener(this).register();
         if (Reflections.findPluginJarfile("Vault") != null) {
             new VaultProxyListener(this).register();
+            new EconomyListener(this).register();
         }
         try {
             new Metrics(this).start();
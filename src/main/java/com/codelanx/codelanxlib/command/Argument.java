@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+/**
+ * A single declared argument of an {@link ArgumentSchema}, used as a typed key
+ * for retrieving its value from {@link ParsedArguments}
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ *
+ * @param <T> The type of the parsed value
+ */
+public final class Argument<T> {
+
+    /** The name shown in usage strings */
+    private final String name;
+    /** The parser used for this argument */
+    private final ArgumentParser<T> parser;
+    /** Whether the argument must be supplied */
+    private final boolean required;
+    /** The value used if the argument is not supplied */
+    private final T def;
+    /** The position within the owning schema */
+    private final int index;
+
+    /**
+     * Package-private constructor, arguments are created by an
+     * {@link ArgumentSchema}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param name The name shown in usage strings
+     * @param parser The parser used for this argument
+     * @param required Whether the argument must be supplied
+     * @param def The value used if the argument is not supplied
+     * @param index The position within the owning schema
+     */
+    Argument(String name, ArgumentParser<T> parser, boolean required, T def, int index) {
+        this.name = name;
+        this.parser = parser;
+        this.required = required;
+        this.def = def;
+        this.index = index;
+    }
+
+    /**
+     * Returns the name of this argument
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The name shown in usage strings
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the {@link ArgumentParser} for this argument
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The parser used for this argument
+     */
+    public ArgumentParser<T> getParser() {
+        return this.parser;
+    }
+
+    /**
+     * Returns whether or not this argument must be supplied
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if the argument is required
+     */
+    public boolean isRequired() {
+        return this.required;
+    }
+
+    /**
+     * Returns the value used when this optional argument is not supplied
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The default value, or {@code null} if there is none
+     */
+    public T getDefault() {
+        return this.def;
+    }
+
+    //Returns the position of this argument within its schema
+    int getIndex() {
+        return this.index;
+    }
+
+    //Returns the usage form of this argument, e.g. "<name>" or "[name...]"
+    String toUsage() {
+        String inner = this.parser.isGreedy() ? this.name + "..." : this.name;
+        return this.required ? "<" + inner + ">" : "[" + inner + "]";
+    }
+
+}
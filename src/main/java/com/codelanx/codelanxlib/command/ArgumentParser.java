@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+/**
+ * Converts a raw command argument into a typed value. Parsers are expected to
+ * be built once and shared, and must not throw on malformed input
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ *
+ * @param <T> The type of value this parser produces
+ *
+ * @see ArgumentParsers
+ */
+@FunctionalInterface
+public interface ArgumentParser<T> {
+
+    /**
+     * Parses the passed argument
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} who supplied the argument
+     * @param arg The raw argument, or every remaining argument joined by
+     *            spaces if this parser is {@link #isGreedy() greedy}
+     * @return The parsed value, or {@code null} if {@code arg} is invalid
+     */
+    public T parse(CommandSender sender, String arg);
+
+    /**
+     * Returns the possible values for an argument starting with the passed
+     * prefix, used for tab completion
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} tab completing
+     * @param prefix The partially typed argument
+     * @return A {@link List} of possible values, never {@code null}
+     */
+    default public List<String> complete(CommandSender sender, String prefix) {
+        return TabInfo.BLANK_TAB_COMPLETE;
+    }
+
+    /**
+     * Whether or not this parser consumes every remaining argument. A greedy
+     * parser may only be used for the last argument of an {@link ArgumentSchema}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if every remaining argument is consumed
+     */
+    default public boolean isGreedy() {
+        return false;
+    }
+
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import com.codelanx.codelanxlib.util.BlockData;
+import com.codelanx.codelanxlib.util.Players;
+import com.codelanx.codelanxlib.util.PrefixIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Factory methods for common {@link ArgumentParser} types. Every parser here
+ * validates its input by hand rather than catching exceptions from the JDK,
+ * and any lookup tables are built once when the parser is created
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class ArgumentParsers {
+
+    /** The largest integer range that will be offered for tab completion */
+    private static final int MAX_COMPLETED_RANGE = 16;
+
+    private ArgumentParsers() {
+    }
+
+    /**
+     * Returns a parser for any single argument
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An {@link ArgumentParser} which returns the argument unchanged
+     */
+    public static ArgumentParser<String> string() {
+        return (sender, arg) -> arg;
+    }
+
+    /**
+     * Returns a parser which consumes every remaining argument, joined by
+     * spaces
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return A greedy {@link ArgumentParser} for the rest of the input
+     */
+    public static ArgumentParser<String> greedyString() {
+        return new ArgumentParser<String>() {
+
+            @Override
+            public String parse(CommandSender sender, String arg) {
+                return arg;
+            }
+
+            @Override
+            public boolean isGreedy() {
+                return true;
+            }
+
+        };
+    }
+
+    /**
+     * Returns a parser for integers within an inclusive range. Small ranges
+     * are also offered as tab completions
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param min The smallest accepted value
+     * @param max The largest accepted value
+     * @return An {@link ArgumentParser} for bounded integers
+     * @throws IllegalArgumentException If {@code min} is greater than
+     *                                  {@code max}
+     */
+    public static ArgumentParser<Integer> intRange(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Minimum cannot be greater than maximum");
+        }
+        PrefixIndex values = (long) max - min < ArgumentParsers.MAX_COMPLETED_RANGE
+                ? PrefixIndex.of(IntStream.rangeClosed(min, max).mapToObj(String::valueOf).collect(Collectors.toList()), false)
+                : PrefixIndex.EMPTY;
+        return new ArgumentParser<Integer>() {
+
+            @Override
+            public Integer parse(CommandSender sender, String arg) {
+                long value = ArgumentParsers.parseLong(arg);
+                return value < min || value > max ? null : (int) value;
+            }
+
+            @Override
+            public List<String> complete(CommandSender sender, String prefix) {
+                return values.startingWith(prefix);
+            }
+
+        };
+    }
+
+    /**
+     * Returns a parser for any integer
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An {@link ArgumentParser} for integers
+     */
+    public static ArgumentParser<Integer> integer() {
+        return ArgumentParsers.intRange(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a parser for finite decimal numbers
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An {@link ArgumentParser} for doubles
+     */
+    public static ArgumentParser<Double> doubles() {
+        return ArgumentParsers.doubleRange(-Double.MAX_VALUE, Double.MAX_VALUE);
+    }
+
+    /**
+     * Returns a parser for decimal numbers within an inclusive range
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param min The smallest accepted value
+     * @param max The largest accepted value
+     * @return An {@link ArgumentParser} for bounded doubles
+     */
+    public static ArgumentParser<Double> doubleRange(double min, double max) {
+        return (sender, arg) -> {
+            if (!ArgumentParsers.isDecimal(arg)) {
+                return null;
+            }
+            double value = Double.parseDouble(arg);
+            return value < min || value > max ? null : value;
+        };
+    }
+
+    /**
+     * Returns a parser for the exact name of an online, visible player
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An {@link ArgumentParser} for online players
+     */
+    public static ArgumentParser<Player> onlinePlayer() {
+        return new ArgumentParser<Player>() {
+
+            @Override
+            public Player parse(CommandSender sender, String arg) {
+                Player p = Bukkit.getPlayerExact(arg);
+                return p == null || !ArgumentParsers.canSee(sender, p) ? null : p;
+            }
+
+            @Override
+            public List<String> complete(CommandSender sender, String prefix) {
+                return ArgumentParsers.onlineNames(sender, prefix);
+            }
+
+        };
+    }
+
+    /**
+     * Returns a parser for a known player, by name or {@link UUID}. Either
+     * resolves to players who are online or were seen online since the
+     * library was enabled. Only data already held in memory is consulted, so
+     * this never reads player data from disk or performs a web lookup
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see Players#getCachedPlayer(String)
+     * @see Players#getCachedPlayer(UUID)
+     * @return An {@link ArgumentParser} for known players
+     */
+    public static ArgumentParser<OfflinePlayer> offlinePlayer() {
+        return new ArgumentParser<OfflinePlayer>() {
+
+            @Override
+            public OfflinePlayer parse(CommandSender sender, String arg) {
+                if (ArgumentParsers.isUUID(arg)) {
+                    return Players.getCachedPlayer(UUID.fromString(arg));
+                }
+                return Players.getCachedPlayer(arg); //online players first, never a disk read
+            }
+
+            @Override
+            public List<String> complete(CommandSender sender, String prefix) {
+                return ArgumentParsers.onlineNames(sender, prefix);
+            }
+
+        };
+    }
+
+    /**
+     * Returns a parser for a {@link Material}, by case-insensitive name or
+     * numeric id
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An {@link ArgumentParser} for materials
+     */
+    public static ArgumentParser<Material> material() {
+        return new MaterialParser();
+    }
+
+    /**
+     * Returns a parser for {@link BlockData}, in the form of
+     * {@code material[:data]} where {@code data} may be {@code *}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An {@link ArgumentParser} for block data
+     */
+    public static ArgumentParser<BlockData> blockData() {
+        MaterialParser materials = new MaterialParser();
+        return new ArgumentParser<BlockData>() {
+
+            @Override
+            public BlockData parse(CommandSender sender, String arg) {
+                int split = arg.indexOf(':');
+                Material mat = materials.parse(sender, split < 0 ? arg : arg.substring(0, split));
+                if (mat == null) {
+                    return null;
+                }
+                if (split < 0) {
+                    return new BlockData(mat, 0);
+                }
+                String data = arg.substring(split + 1);
+                if (data.equals("*")) {
+                    return new BlockData(mat, -1);
+                }
+                long value = ArgumentParsers.parseLong(data);
+                return value < 0 || value > Byte.MAX_VALUE ? null : new BlockData(mat, value);
+            }
+
+            @Override
+            public List<String> complete(CommandSender sender, String prefix) {
+                return prefix.indexOf(':') < 0 ? materials.complete(sender, prefix) : TabInfo.BLANK_TAB_COMPLETE;
+            }
+
+        };
+    }
+
+    /**
+     * Returns a parser for the constants of an enum, by case-insensitive name
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param <T> The enum type
+     * @param type The {@link Class} of the enum
+     * @return An {@link ArgumentParser} for the enum's constants
+     */
+    public static <T extends Enum<T>> ArgumentParser<T> enumValue(Class<T> type) {
+        Map<String, T> byName = new HashMap<>();
+        for (T t : type.getEnumConstants()) {
+            byName.put(t.name().toLowerCase(), t);
+        }
+        PrefixIndex names = PrefixIndex.of(byName.keySet(), true);
+        return new ArgumentParser<T>() {
+
+            @Override
+            public T parse(CommandSender sender, String arg) {
+                return byName.get(arg.toLowerCase());
+            }
+
+            @Override
+            public List<String> complete(CommandSender sender, String prefix) {
+                return names.startingWith(prefix);
+            }
+
+        };
+    }
+
+    //Materials by lowercase name, built once per parser
+    private static final class MaterialParser implements ArgumentParser<Material> {
+
+        private final Map<String, Material> byName = new HashMap<>();
+        private final PrefixIndex names;
+
+        private MaterialParser() {
+            for (Material m : Material.values()) {
+                this.byName.put(m.name().toLowerCase(), m);
+            }
+            this.names = PrefixIndex.of(this.byName.keySet(), true);
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Material parse(CommandSender sender, String arg) {
+            long id = ArgumentParsers.parseLong(arg);
+            if (id >= 0 && id <= Short.MAX_VALUE) {
+                return Material.getMaterial((int) id);
+            }
+            return this.byName.get(arg.toLowerCase());
+        }
+
+        @Override
+        public List<String> complete(CommandSender sender, String prefix) {
+            return this.names.startingWith(prefix);
+        }
+
+    }
+
+    //Parses a base 10 integer without exceptions, returns Long.MIN_VALUE if invalid
+    private static long parseLong(String in) {
+        int len = in.length();
+        if (len == 0 || len > 11) {
+            return Long.MIN_VALUE;
+        }
+        boolean negative = in.charAt(0) == '-';
+        int i = negative || in.charAt(0) == '+' ? 1 : 0;
+        if (i == len) {
+            return Long.MIN_VALUE;
+        }
+        long back = 0;
+        for (; i < len; i++) {
+            char c = in.charAt(i);
+            if (c < '0' || c > '9') {
+                return Long.MIN_VALUE;
+            }
+            back = back * 10 + (c - '0');
+        }
+        return negative ? -back : back;
+    }
+
+    //Returns true if the input is a plain decimal number, which Double#parseDouble accepts
+    private static boolean isDecimal(String in) {
+        int len = in.length();
+        int i = len > 0 && (in.charAt(0) == '-' || in.charAt(0) == '+') ? 1 : 0;
+        boolean digits = false;
+        boolean point = false;
+        for (; i < len; i++) {
+            char c = in.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return false;
+            }
+        }
+        return digits;
+    }
+
+    //Returns true if the input is in the canonical 8-4-4-4-12 UUID form
+    private static boolean isUUID(String in) {
+        if (in.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = in.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Returns true if the sender is allowed to see the player
+    private static boolean canSee(CommandSender sender, Player target) {
+        return !(sender instanceof Player) || ((Player) sender).canSee(target);
+    }
+
+    //Returns the names of visible online players starting with the prefix
+    private static List<String> onlineNames(CommandSender sender, String prefix) {
+        List<String> back = new ArrayList<>();
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            String name = p.getName();
+            if (name.regionMatches(true, 0, prefix, 0, prefix.length()) && ArgumentParsers.canSee(sender, p)) {
+                back.add(name);
+            }
+        }
+        return back.isEmpty() ? TabInfo.BLANK_TAB_COMPLETE : back;
+    }
+
+}
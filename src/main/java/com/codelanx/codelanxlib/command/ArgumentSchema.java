@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A declarative, ordered list of typed {@link Argument Arguments} for a
+ * {@link CommandNode}. Arguments are declared once, typically from field
+ * initializers of the node, and the schema then provides parsing, usage
+ * strings and tab completion for the node. Required arguments must precede
+ * optional ones, and a greedy argument must be the last. Any arguments
+ * supplied past the end of a non-greedy schema are ignored
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class ArgumentSchema {
+
+    /** The declared arguments, in order */
+    private Argument<?>[] args = new Argument<?>[0];
+    /** The number of required arguments */
+    private int required = 0;
+    /** The cached usage string */
+    private String usage = "";
+
+    /**
+     * Declares a new required argument
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param <T> The type of the parsed value
+     * @param name The name shown in usage strings
+     * @param parser The {@link ArgumentParser} for the argument
+     * @return The declared {@link Argument}
+     * @throws IllegalStateException If an optional or greedy argument has
+     *                               already been declared
+     */
+    public <T> Argument<T> required(String name, ArgumentParser<T> parser) {
+        if (this.required != this.args.length) {
+            throw new IllegalStateException("Required arguments must precede optional arguments");
+        }
+        this.required++;
+        return this.add(new Argument<>(name, parser, true, null, this.args.length));
+    }
+
+    /**
+     * Declares a new optional argument
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param <T> The type of the parsed value
+     * @param name The name shown in usage strings
+     * @param parser The {@link ArgumentParser} for the argument
+     * @param def The value to use if the argument is not supplied
+     * @return The declared {@link Argument}
+     * @throws IllegalStateException If a greedy argument has already been
+     *                               declared
+     */
+    public <T> Argument<T> optional(String name, ArgumentParser<T> parser, T def) {
+        return this.add(new Argument<>(name, parser, false, def, this.args.length));
+    }
+
+    //Appends a declared argument and refreshes the usage string
+    private <T> Argument<T> add(Argument<T> arg) {
+        if (this.isGreedy()) {
+            throw new IllegalStateException("No arguments may follow a greedy argument");
+        }
+        this.args = Arrays.copyOf(this.args, this.args.length + 1);
+        this.args[arg.getIndex()] = arg;
+        StringBuilder sb = new StringBuilder();
+        for (Argument<?> a : this.args) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(a.toUsage());
+        }
+        this.usage = sb.toString();
+        return arg;
+    }
+
+    /**
+     * Parses the passed arguments against this schema. No exceptions are used
+     * to signal malformed input
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} who supplied the arguments
+     * @param raw The raw command arguments
+     * @return The {@link ParsedArguments}, or {@code null} if a required
+     *         argument was missing or any supplied argument was invalid
+     */
+    public ParsedArguments parse(CommandSender sender, ArgumentView raw) {
+        Argument<?>[] args = this.args;
+        if (raw.size() < this.required) {
+            return null;
+        }
+        Object[] values = new Object[args.length];
+        int supplied = Math.min(raw.size(), args.length);
+        for (int i = 0; i < args.length; i++) {
+            Argument<?> arg = args[i];
+            if (i >= supplied) {
+                values[i] = arg.getDefault();
+                continue;
+            }
+            String in = arg.getParser().isGreedy() ? raw.from(i).join(" ") : raw.get(i);
+            Object value = arg.getParser().parse(sender, in);
+            if (value == null) {
+                return null;
+            }
+            values[i] = value;
+        }
+        return new ParsedArguments(this, values, supplied, raw);
+    }
+
+    /**
+     * Returns tab completions for the last of the passed arguments
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} tab completing
+     * @param raw The command arguments, the last of which is incomplete
+     * @return A {@link List} of possible values for the last argument
+     */
+    public List<String> complete(CommandSender sender, ArgumentView raw) {
+        Argument<?>[] args = this.args;
+        int pos = raw.size() - 1;
+        if (pos < 0 || args.length == 0) {
+            return TabInfo.BLANK_TAB_COMPLETE;
+        }
+        if (pos >= args.length) {
+            if (!this.isGreedy()) {
+                return TabInfo.BLANK_TAB_COMPLETE;
+            }
+            pos = args.length - 1;
+        }
+        return args[pos].getParser().complete(sender, raw.get(raw.size() - 1));
+    }
+
+    /**
+     * Returns the usage string for this schema, e.g. {@code <player> [amount]}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The usage string
+     */
+    public String getUsage() {
+        return this.usage;
+    }
+
+    /**
+     * Returns the declared {@link Argument Arguments}, in order
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An unmodifiable {@link List} of the declared arguments
+     */
+    public List<Argument<?>> getArguments() {
+        return Collections.unmodifiableList(Arrays.asList(this.args));
+    }
+
+    /**
+     * Returns the number of arguments which must be supplied
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of required arguments
+     */
+    public int getRequired() {
+        return this.required;
+    }
+
+    //Returns true if the passed argument was declared by this schema
+    boolean contains(Argument<?> arg) {
+        int index = arg.getIndex();
+        return index < this.args.length && this.args[index] == arg;
+    }
+
+    //Returns true if the last argument consumes all remaining input
+    private boolean isGreedy() {
+        return this.args.length > 0 && this.args[this.args.length - 1].getParser().isGreedy();
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A read-only view over a range of command arguments. Used to pass arguments
+ * down a {@link CommandNode} chain without copying them into a new array
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class ArgumentView extends AbstractList<String> implements RandomAccess {
+
+    /** Represents a view with no arguments */
+    public static final ArgumentView EMPTY = new ArgumentView(new String[0], 0, 0);
+    /** The backing argument array, never modified */
+    private final String[] args;
+    /** The index of the first argument in this view */
+    private final int offset;
+    /** The number of arguments in this view */
+    private final int length;
+
+    /**
+     * Creates a view over part of an argument array. The array is not copied,
+     * and must not be modified afterwards
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param args The backing arguments
+     * @param offset The index of the first argument to view
+     * @param length The number of arguments to view
+     */
+    ArgumentView(String[] args, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > args.length) {
+            throw new IndexOutOfBoundsException("Bad argument range: " + offset + "+" + length + " of " + args.length);
+        }
+        this.args = args;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns a view over a copy of the passed arguments
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param args The arguments to view
+     * @return A new {@link ArgumentView}
+     */
+    public static ArgumentView of(String... args) {
+        return new ArgumentView(args.clone(), 0, args.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param index {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("Argument " + index + " does not exist");
+        }
+        return this.args[this.offset + index];
+    }
+
+    /**
+     * Returns the argument at the specified index, or the default value if
+     * there are not enough arguments
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param index The index of the argument
+     * @param def The value to return if the argument is missing
+     * @return The argument, or {@code def} if missing
+     */
+    public String get(int index, String def) {
+        return index >= 0 && index < this.length ? this.args[this.offset + index] : def;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.length;
+    }
+
+    /**
+     * Returns a view of the arguments following the specified index. This does
+     * not copy the arguments
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param from The index of the first argument in the new view
+     * @return A new {@link ArgumentView} over the remaining arguments
+     */
+    public ArgumentView from(int from) {
+        if (from == 0) {
+            return this;
+        }
+        return new ArgumentView(this.args, this.offset + from, this.length - from);
+    }
+
+    /**
+     * Copies the viewed arguments into a new array
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return A new array of the arguments in this view
+     */
+    @Override
+    public String[] toArray() {
+        return Arrays.copyOfRange(this.args, this.offset, this.offset + this.length);
+    }
+
+    /**
+     * Joins the viewed arguments with the passed separator
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param separator The separator to place between arguments
+     * @return The joined arguments
+     */
+    public String join(String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.length; i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            sb.append(this.args[this.offset + i]);
+        }
+        return sb.toString();
+    }
+
+}
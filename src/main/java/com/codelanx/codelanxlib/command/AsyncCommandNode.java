@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import com.codelanx.commons.util.Scheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * A {@link CommandNode} whose execution happens off of the server thread.
+ * Verification of the sender, permissions and arguments still happens on the
+ * calling thread before anything is scheduled. The node is then executed on
+ * the library's scheduler, and its resulting {@link CommandStatus} is relayed
+ * back to the sender on the server thread
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ *
+ * @param <E> The type of the {@link Plugin} associated with this
+ *            {@link CommandNode}
+ */
+public abstract class AsyncCommandNode<E extends Plugin> extends CommandNode<E> {
+
+    /**
+     * Initializes a new {@link AsyncCommandNode} with no parent object
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The {@link Plugin} relevant to this node
+     */
+    public AsyncCommandNode(E plugin) {
+        super(plugin);
+    }
+
+    /**
+     * Initializes a new {@link AsyncCommandNode} with the passed parent object
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The {@link Plugin} relevant to this node
+     * @param parent The parent {@link CommandNode}, or {@code null} for none
+     */
+    public AsyncCommandNode(E plugin, CommandNode<?> parent) {
+        super(plugin, parent);
+    }
+
+    /**
+     * Executes this node asynchronously. This is called from a thread of the
+     * library's scheduler, so it may block, but must not touch Bukkit API that
+     * requires the server thread. The returned future may also be completed
+     * later from any other thread
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The command executor
+     * @param args The command arguments, starting after the subcommand name
+     * @return A future for the {@link CommandStatus} of the command. Neither
+     *         the future nor its value may be {@code null}
+     */
+    public abstract CompletableFuture<CommandStatus> executeAsync(CommandSender sender, ArgumentView args);
+
+    /**
+     * Executes this node asynchronously for nodes which declare their
+     * arguments through {@link CommandNode#getArguments()}. The arguments are
+     * parsed on the calling thread before anything is scheduled, and the same
+     * {@link ParsedArguments} are handed to this method. By default this
+     * forwards the raw arguments to
+     * {@link AsyncCommandNode#executeAsync(CommandSender, ArgumentView)}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The command executor
+     * @param args The parsed command arguments
+     * @return A future for the {@link CommandStatus} of the command. Neither
+     *         the future nor its value may be {@code null}
+     */
+    public CompletableFuture<CommandStatus> executeAsync(CommandSender sender, ParsedArguments args) {
+        return this.executeAsync(sender, args.getRaw());
+    }
+
+    /**
+     * Returns how long this node may execute for before it is considered
+     * failed. Defaults to 30 seconds
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param unit The {@link TimeUnit} to return the timeout in
+     * @return The timeout for an execution of this node
+     */
+    public long getTimeout(TimeUnit unit) {
+        return unit.convert(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Schedules {@link AsyncCommandNode#executeAsync(CommandSender, ArgumentView)}
+     * and returns {@link CommandStatus#ASYNC}
+     * <br><br> {@inheritDoc}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender {@inheritDoc}
+     * @param args {@inheritDoc}
+     * @return {@link CommandStatus#ASYNC}
+     */
+    @Override
+    public final CommandStatus execute(CommandSender sender, String... args) {
+        return this.execute(sender, ArgumentView.of(args));
+    }
+
+    /**
+     * Schedules {@link AsyncCommandNode#executeAsync(CommandSender, ArgumentView)}
+     * and returns {@link CommandStatus#ASYNC}
+     * <br><br> {@inheritDoc}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender {@inheritDoc}
+     * @param args {@inheritDoc}
+     * @return {@link CommandStatus#ASYNC}
+     */
+    @Override
+    public final CommandStatus execute(CommandSender sender, ArgumentView args) {
+        return this.schedule(sender, args, () -> this.executeAsync(sender, args));
+    }
+
+    /**
+     * Schedules {@link AsyncCommandNode#executeAsync(CommandSender, ParsedArguments)}
+     * with the arguments already parsed on the calling thread, and returns
+     * {@link CommandStatus#ASYNC}
+     * <br><br> {@inheritDoc}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender {@inheritDoc}
+     * @param args {@inheritDoc}
+     * @return {@link CommandStatus#ASYNC}
+     */
+    @Override
+    public final CommandStatus execute(CommandSender sender, ParsedArguments args) {
+        return this.schedule(sender, args.getRaw(), () -> this.executeAsync(sender, args));
+    }
+
+    //Runs the execution on the library's scheduler and relays its outcome
+    private CommandStatus schedule(CommandSender sender, ArgumentView args, Supplier<CompletableFuture<CommandStatus>> exec) {
+        ScheduledExecutorService service = Scheduler.getService();
+        long start = System.nanoTime();
+        CompletableFuture<CommandStatus> result = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = service.schedule(() -> {
+            result.completeExceptionally(new TimeoutException("Command did not complete in time"));
+        }, this.getTimeout(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        service.execute(() -> {
+            try {
+                CompletableFuture<CommandStatus> future = exec.get();
+                if (future == null) {
+                    result.completeExceptionally(new NullPointerException("Cannot return null from AsyncCommandNode#executeAsync"));
+                    return;
+                }
+                future.whenComplete((stat, ex) -> {
+                    if (ex != null) {
+                        result.completeExceptionally(ex);
+                    } else {
+                        result.complete(stat);
+                    }
+                });
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        result.whenComplete((stat, ex) -> {
+            timeout.cancel(false);
+            this.getMetrics().recordExecution(System.nanoTime() - start);
+            CommandStatus back = stat;
+            if (ex != null || back == null) {
+                back = CommandStatus.FAILED;
+                this.plugin.getLogger().log(Level.SEVERE, String.format("Unhandled exception executing command '%s %s'",
+                        this.getFilteredUsage(), args.join(" ")),
+                        ex != null ? ex : new NullPointerException("Cannot return a null CommandStatus"));
+            }
+            this.getMetrics().recordStatus(back);
+            this.complete(sender, back, args);
+        });
+        return CommandStatus.ASYNC;
+    }
+
+    //Relays the final status to the sender on the server thread
+    private void complete(CommandSender sender, CommandStatus stat, ArgumentView args) {
+        if (!this.plugin.isEnabled()) {
+            return;
+        }
+        if (Bukkit.isPrimaryThread()) {
+            this.relay(sender, stat, args);
+        } else {
+            Bukkit.getScheduler().runTask(this.plugin, () -> this.relay(sender, stat, args));
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import com.codelanx.commons.logging.Debugger;
+import com.codelanx.commons.util.Scheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * A tab completion source which is evaluated on the library's worker pool
+ * rather than the calling thread. Results are cached per prefix, and shared
+ * by every {@link CommandSender}, for a fixed time. The source is never given
+ * the sender who tabbed, so it cannot tailor results to one sender or call
+ * into Bukkit with it off of the server thread. Callers only ever wait up
+ * to a deadline for a fresh result. The server thread never waits at all, and
+ * is instead given the most recent cached result while a refresh runs
+ * <br><br>
+ * The cache holds at most {@link #MAX_ENTRIES} prefixes. Once full, and with
+ * nothing expired to purge, prefixes not already cached are answered from the
+ * nearest cached shorter prefix without starting a task, so a flood of
+ * distinct prefixes can neither grow the cache nor queue work
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+final class AsyncCompletion {
+
+    /** The number of cached entries at which expired entries are purged */
+    private static final int PURGE_THRESHOLD = 256;
+    /** The most entries cached at once, past which new prefixes are refused */
+    private static final int MAX_ENTRIES = 1024;
+    /** The source of completions, invoked off the server thread */
+    private final Function<String, ? extends List<String>> source;
+    /** Whether or not results depend on the argument */
+    private final boolean keyed;
+    /** How long a result stays fresh, in nanoseconds */
+    private final long ttl;
+    /** How long an off-thread caller may wait for a result, in nanoseconds */
+    private final long deadline;
+    /** Cached results by prefix */
+    private final Map<Key, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor. Assigns parameters to fields
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param source The completion source
+     * @param keyed {@code false} if the source ignores the argument
+     * @param ttl How long a result stays fresh
+     * @param deadline How long an off-thread caller may wait for a result
+     * @param unit The {@link TimeUnit} of {@code ttl} and {@code deadline}
+     */
+    AsyncCompletion(Function<String, ? extends List<String>> source,
+                    boolean keyed, long ttl, long deadline, TimeUnit unit) {
+        this.source = source;
+        this.keyed = keyed;
+        this.ttl = unit.toNanos(ttl);
+        this.deadline = unit.toNanos(deadline);
+    }
+
+    /**
+     * Returns the completions for the passed argument. On the server thread
+     * this never waits, and returns the freshest cached result available
+     * (possibly one cached for a shorter prefix), or an empty list while the
+     * first result is computed
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param arg The argument being tabbed, or {@code null}
+     * @return The completions, which are not filtered by the argument
+     */
+    List<String> get(String arg) {
+        Key key = this.keyed ? new Key(arg) : Key.UNKEYED;
+        Entry entry = this.cache.get(key);
+        if (entry == null) {
+            if (this.cache.size() >= AsyncCompletion.PURGE_THRESHOLD) {
+                long now = System.nanoTime();
+                this.cache.values().removeIf(e -> e.pending == null && e.expires - now < 0);
+            }
+            entry = this.cache.computeIfAbsent(key, k -> this.cache.size() < AsyncCompletion.MAX_ENTRIES ? new Entry() : null);
+            if (entry == null) {
+                return this.fallback(key); //full, don't start a task for a key we can't keep
+            }
+        }
+        List<String> value = entry.value;
+        if (value != null && entry.expires - System.nanoTime() > 0) {
+            return value;
+        }
+        CompletableFuture<List<String>> pending = this.refresh(entry, arg);
+        if (!Bukkit.isPrimaryThread() && this.deadline > 0) {
+            try {
+                return pending.get(this.deadline, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException ex) {
+                //fall back to the last known result
+            }
+        }
+        return value != null ? value : this.fallback(key);
+    }
+
+    //Starts computing a new value for the entry, unless one is in flight
+    private CompletableFuture<List<String>> refresh(Entry entry, String arg) {
+        synchronized (entry) {
+            CompletableFuture<List<String>> pending = entry.pending;
+            if (pending == null) {
+                pending = CompletableFuture.supplyAsync(() -> {
+                    List<String> back = this.source.apply(arg);
+                    return back == null ? TabInfo.BLANK_TAB_COMPLETE : back;
+                }, Scheduler.getService());
+                entry.pending = pending;
+                pending.whenComplete((result, ex) -> {
+                    synchronized (entry) {
+                        if (ex != null) {
+                            Debugger.error(ex, "Error computing asynchronous tab completions");
+                        } else {
+                            entry.value = result;
+                            entry.expires = System.nanoTime() + this.ttl;
+                        }
+                        entry.pending = null;
+                    }
+                });
+            }
+            return pending;
+        }
+    }
+
+    //Finds the result cached for the longest shorter prefix of the key
+    private List<String> fallback(Key key) {
+        if (key.prefix == null) {
+            return TabInfo.BLANK_TAB_COMPLETE;
+        }
+        for (int i = key.prefix.length() - 1; i >= 0; i--) {
+            Entry e = this.cache.get(new Key(i == 0 ? null : key.prefix.substring(0, i)));
+            if (e != null && e.value != null) {
+                return e.value;
+            }
+        }
+        return TabInfo.BLANK_TAB_COMPLETE;
+    }
+
+    //A cached result for a single key
+    private static final class Entry {
+
+        private volatile List<String> value;
+        private volatile long expires;
+        private CompletableFuture<List<String>> pending;
+
+    }
+
+    //Identifies a cached result by prefix
+    private static final class Key {
+
+        private static final Key UNKEYED = new Key(null);
+        private final String prefix;
+
+        private Key(String prefix) {
+            this.prefix = prefix == null || prefix.isEmpty() ? null : prefix;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(this.prefix, other.prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.prefix);
+        }
+
+    }
+
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution statistics for a single {@link CommandNode}. All counters are
+ * striped ({@link LongAdder}), so recording from any number of threads never
+ * contends on a single value. Execution times are kept in a histogram of
+ * power-of-two nanosecond buckets, which is precise enough to find slow
+ * commands while costing one increment per recording
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class CommandMetrics {
+
+    /** The number of histogram buckets, the last holds everything larger */
+    private static final int BUCKETS = 40;
+    /** Counts of each {@link CommandStatus} returned, by ordinal */
+    private final LongAdder[] statuses = new LongAdder[CommandStatus.values().length];
+    /** Counts of executions by power-of-two nanosecond bucket */
+    private final LongAdder[] histogram = new LongAdder[CommandMetrics.BUCKETS];
+    /** The number of times {@link CommandNode#execute} was called */
+    private final LongAdder executions = new LongAdder();
+    /** The total time spent executing, in nanoseconds */
+    private final LongAdder executeNanos = new LongAdder();
+    /** The longest single execution, in nanoseconds */
+    private final LongAccumulator maxExecuteNanos = new LongAccumulator(Math::max, 0);
+    /** The number of tab completions handled */
+    private final LongAdder tabCompletes = new LongAdder();
+    /** The total time spent tab completing, in nanoseconds */
+    private final LongAdder tabCompleteNanos = new LongAdder();
+
+    /**
+     * Constructor. Creates all counters
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    CommandMetrics() {
+        for (int i = 0; i < this.statuses.length; i++) {
+            this.statuses[i] = new LongAdder();
+        }
+        for (int i = 0; i < this.histogram.length; i++) {
+            this.histogram[i] = new LongAdder();
+        }
+    }
+
+    //Records the result of an invocation, whether or not it was executed
+    void recordStatus(CommandStatus status) {
+        this.statuses[status.ordinal()].increment();
+    }
+
+    //Records the time a call to execute took
+    void recordExecution(long nanos) {
+        this.executions.increment();
+        this.executeNanos.add(nanos);
+        this.maxExecuteNanos.accumulate(nanos);
+        this.histogram[CommandMetrics.bucket(nanos)].increment();
+    }
+
+    //Records the time a tab completion took
+    void recordTabComplete(long nanos) {
+        this.tabCompletes.increment();
+        this.tabCompleteNanos.add(nanos);
+    }
+
+    /**
+     * Returns the number of times the node was invoked, including invocations
+     * which were refused before being executed
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The total number of invocations
+     */
+    public long getInvocations() {
+        long back = 0;
+        for (LongAdder a : this.statuses) {
+            back += a.sum();
+        }
+        return back;
+    }
+
+    /**
+     * Returns the number of invocations which resulted in the passed
+     * {@link CommandStatus}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param status The {@link CommandStatus} to count
+     * @return The number of invocations resulting in the status
+     */
+    public long getCount(CommandStatus status) {
+        return this.statuses[status.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of invocations which resulted in
+     * {@link CommandStatus#FAILED}, either returned or due to an exception
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of failed invocations
+     */
+    public long getFailures() {
+        return this.getCount(CommandStatus.FAILED);
+    }
+
+    /**
+     * Returns the number of times the node was actually executed
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of executions
+     */
+    public long getExecutions() {
+        return this.executions.sum();
+    }
+
+    /**
+     * Returns the mean execution time
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param unit The {@link TimeUnit} to return the time in
+     * @return The mean execution time, or 0 if never executed
+     */
+    public double getMeanExecutionTime(TimeUnit unit) {
+        long count = this.executions.sum();
+        return count == 0 ? 0 : CommandMetrics.convert(this.executeNanos.sum() / (double) count, unit);
+    }
+
+    /**
+     * Returns the longest execution time
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param unit The {@link TimeUnit} to return the time in
+     * @return The longest execution time
+     */
+    public double getMaxExecutionTime(TimeUnit unit) {
+        return CommandMetrics.convert(this.maxExecuteNanos.get(), unit);
+    }
+
+    /**
+     * Returns an upper bound for the execution time of the passed fraction of
+     * executions, e.g. {@code 0.95} for the 95th percentile. As times are
+     * bucketed by powers of two, the result may be up to twice the real value
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param percentile The fraction of executions, between 0 and 1
+     * @param unit The {@link TimeUnit} to return the time in
+     * @return The upper bound of the percentile, or 0 if never executed
+     */
+    public double getExecutionTimePercentile(double percentile, TimeUnit unit) {
+        long[] counts = new long[this.histogram.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.histogram[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(total * Math.min(1, Math.max(0, percentile)));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target && seen > 0) {
+                return CommandMetrics.convert(1L << i, unit);
+            }
+        }
+        return this.getMaxExecutionTime(unit);
+    }
+
+    /**
+     * Returns the number of tab completions handled by the node
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of tab completions
+     */
+    public long getTabCompletes() {
+        return this.tabCompletes.sum();
+    }
+
+    /**
+     * Returns the mean time taken to tab complete
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param unit The {@link TimeUnit} to return the time in
+     * @return The mean tab completion time, or 0 if never tab completed
+     */
+    public double getMeanTabCompleteTime(TimeUnit unit) {
+        long count = this.tabCompletes.sum();
+        return count == 0 ? 0 : CommandMetrics.convert(this.tabCompleteNanos.sum() / (double) count, unit);
+    }
+
+    /**
+     * Resets all recorded statistics. Recordings made concurrently with a
+     * reset may be partially kept
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    public void reset() {
+        for (LongAdder a : this.statuses) {
+            a.reset();
+        }
+        for (LongAdder a : this.histogram) {
+            a.reset();
+        }
+        this.executions.reset();
+        this.executeNanos.reset();
+        this.maxExecuteNanos.reset();
+        this.tabCompletes.reset();
+        this.tabCompleteNanos.reset();
+    }
+
+    //Returns the histogram bucket for a time, bucket i holds times below 2^i
+    private static int bucket(long nanos) {
+        return Math.min(CommandMetrics.BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+    }
+
+    private static double convert(double nanos, TimeUnit unit) {
+        return nanos / TimeUnit.NANOSECONDS.convert(1, unit);
+    }
+
+}
@@ -26,7 +26,6 @@ import com.codelanx.commons.util.exception.Exceptions;
 import com.codelanx.commons.util.exception.IllegalReturnException;
 import com.codelanx.codelanxlib.config.Lang;
 import com.codelanx.codelanxlib.permission.Permissions;
-import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
@@ -45,16 +44,21 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.regex.Pattern;
 
 /**
  * Represents a singular point in a command argument chain (or even the command
@@ -74,19 +78,55 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
     /** The formatAndColor to output with */
     private final Lang format;
     /** The {@link CommandNode} that directly proceeds this node */
-    private CommandNode<? extends Plugin> parent;
-    /** A mapping of {@link CommandNode CommandNodes} as sub-commands */
-    private final Map<String, CommandNode<? extends Plugin>> subcommands = new HashMap<>();
+    private volatile CommandNode<? extends Plugin> parent;
+    /** An immutable mapping of sub-commands, replaced rather than modified */
+    private volatile Map<String, CommandNode<? extends Plugin>> subcommands = Collections.emptyMap();
     /** Indicates whether or not this node is meant to be directly executed */
     private boolean executable = true;
     /** Whether or not to allow a {@link ProxiedCommandSender} */
     private boolean allowProxies = true;
-    /** List of permissions that are required if executed */
-    private final List<Permissions> perms = new ArrayList<>();
+    /** Flat array of permissions that are required if executed */
+    private Permissions[] perms = new Permissions[0];
     /** Represents a restriction on the CommandSender type */
     private CommandStatus restriction = null;
     /** The minimum length the arguments can be */
     private int minArgs = 0;
+    /** The typed arguments of this node, or {@code null} if not declared */
+    private ArgumentSchema arguments;
+    /** Limits how often a sender may execute this node, or {@code null} */
+    private RateLimiter limiter;
+    /** Fuzzy index of this tree's paths, only held by a root node once used */
+    private volatile SuggestionIndex suggestions;
+    /** Memoized usage and depth, or {@code null} if the path above changed */
+    private PathInfo pathInfo;
+    /** Executable nodes below this one by visibility, or {@code null} if not built */
+    private volatile VisibilityIndex visibility;
+    /** Memoized {@link #getAliases()} result, or {@code null} if stale */
+    private Map<String, CommandNode<? extends Plugin>> aliases;
+    /** Matches bracketed usage tags, such as {@code [tag]} */
+    private static final Pattern OPTIONAL_TAG = Pattern.compile("\\[.*\\]");
+    /** Matches angled usage tags, such as {@code <tag>} */
+    private static final Pattern REQUIRED_TAG = Pattern.compile("\\<.*\\>");
+    /** Execution statistics for this node */
+    private final CommandMetrics metrics = new CommandMetrics();
+    /** The trusted executor handed to Bukkit when registering this node */
+    private final BukkitExecutor executor = new BukkitExecutor();
+    /** The compiled routing table for this tree, or {@code null} if not compiled */
+    private volatile CommandRouter router;
+    /** Whether {@link #router} matches subcommand names ignoring case */
+    private volatile boolean ignoreCase = false;
+    /** Hands out tree versions, which are even and never reused across trees */
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    /** Hands out node ids, which order the locking of several trees */
+    private static final AtomicLong IDS = new AtomicLong();
+    /** A unique id for this node, used to order locking */
+    private final long id = CommandNode.IDS.incrementAndGet();
+    /** Guards mutation of the tree this node is the root of */
+    private final ReentrantLock treeLock = new ReentrantLock();
+    /** The version of the tree this node is the root of, odd during a mutation */
+    private volatile long treeVersion = CommandNode.VERSIONS.addAndGet(2);
+    /** The depth of nested mutations in progress, guarded by {@link #treeLock} */
+    private int mutations = 0;
 
     /**
      * Initializes a new {@link CommandNode} with no parent object
@@ -124,11 +164,15 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
     }
 
     /**
-     * Called from Bukkit to indicate an executed command
+     * Called from Bukkit to indicate an executed command. Direct invocations
+     * verify the caller by walking the stack; nodes registered through
+     * {@link CommandNode#registerAsBukkitCommand()} or
+     * {@link CommandNode#aliasAsBukkitCommand(String)} are dispatched through
+     * a trusted executor which skips this check
      * <br><br> {@inheritDoc}
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param sender {@inheritDoc}
      * @param command {@inheritDoc}
@@ -140,35 +184,184 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
     @Override
     public final boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         Exceptions.illegalInvocation(ReflectBukkit.accessedFromBukkit(), "Only bukkit may call this method");
-        CommandNode<? extends Plugin> child = this;
-        int start = 0;
-        for (String s : args) {
-            CommandNode<? extends Plugin> next = child.getChild(s);
-            if (next != null) {
-                child = next;
-                start++;
-            } else {
-                break;
+        return this.dispatchCommand(sender, label, args);
+    }
+
+    //Executes the command chain, caller must already be verified
+    private boolean dispatchCommand(CommandSender sender, String label, String[] args) {
+        return this.getRouter().dispatch(sender, label, args);
+    }
+
+    //Returns a snapshot of the tree below this node, never one taken mid-mutation
+    private CommandRouter getRouter() {
+        CommandRouter router = this.router;
+        if (router != null && router.getStamp().isCurrent()) {
+            return router;
+        }
+        CommandRouter compiled = CommandRouter.compile(this, this.ignoreCase);
+        if (compiled.getStamp().isPublishable()) {
+            this.router = compiled;
+            return compiled;
+        }
+        if (router != null) {
+            return router; //a mutation is in progress, keep reading the last snapshot
+        }
+        CommandNode<? extends Plugin> root = this.getRoot();
+        root.treeLock.lock();
+        try {
+            router = CommandRouter.compile(this, this.ignoreCase);
+            this.router = router;
+            return router;
+        } finally {
+            root.treeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs a change to the trees of the passed nodes as a single atomic
+     * mutation. Each tree is locked and versioned by its root, so a change
+     * only stalls snapshots of the trees it touches; dispatch and tab
+     * completion keep reading the last complete snapshot of a tree until the
+     * outermost mutation of it finishes
+     * <br><br>
+     * Every node the change will touch should be passed, so that all of their
+     * trees are locked up front in a consistent order. A nested mutation
+     * which reaches a tree not locked by the outer one locks it as it goes
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param change The change to make
+     * @param nodes The nodes whose trees the change touches
+     */
+    static void mutate(Runnable change, CommandNode<?>... nodes) {
+        List<CommandNode<?>> roots = CommandNode.lockRoots(nodes);
+        try {
+            for (CommandNode<?> root : roots) {
+                if (root.mutations++ == 0) {
+                    root.treeVersion++; //odd, no other tree can be at this version
+                }
+            }
+            try {
+                change.run();
+            } finally {
+                for (CommandNode<?> root : roots) {
+                    if (--root.mutations == 0) {
+                        root.treeVersion = CommandNode.VERSIONS.addAndGet(2);
+                    }
+                }
+            }
+        } finally {
+            roots.forEach(r -> r.treeLock.unlock());
+        }
+    }
+
+    //Locks the distinct roots of the passed nodes in id order, retrying if one moves
+    private static List<CommandNode<?>> lockRoots(CommandNode<?>... nodes) {
+        while (true) {
+            List<CommandNode<?>> roots = new ArrayList<>(nodes.length);
+            for (CommandNode<?> node : nodes) {
+                CommandNode<?> root = node.getRoot();
+                if (!roots.contains(root)) {
+                    roots.add(root);
+                }
             }
+            roots.sort(Comparator.comparingLong(r -> r.id));
+            roots.forEach(r -> r.treeLock.lock());
+            boolean moved = false;
+            for (CommandNode<?> node : nodes) {
+                moved |= !roots.contains(node.getRoot()); //moved before we got the lock
+            }
+            if (!moved) {
+                return roots;
+            }
+            roots.forEach(r -> r.treeLock.unlock());
         }
-        args = Arrays.copyOfRange(args, start, args.length);
+    }
+
+    //Publishes a copy of the subcommands with the passed mapping, must be mutating
+    private void putSubcommand(String name, CommandNode<? extends Plugin> node) {
+        Map<String, CommandNode<? extends Plugin>> next = new HashMap<>(this.subcommands);
+        next.put(name, node);
+        this.subcommands = Collections.unmodifiableMap(next);
+    }
+
+    //Publishes a copy of the subcommands without the passed name, must be mutating
+    private void removeSubcommand(String name) {
+        if (this.subcommands.containsKey(name)) {
+            Map<String, CommandNode<? extends Plugin>> next = new HashMap<>(this.subcommands);
+            next.remove(name);
+            this.subcommands = Collections.unmodifiableMap(next);
+        }
+    }
+
+    /**
+     * Verifies and executes this node as the end of a resolved command chain,
+     * and relays the resulting {@link CommandStatus} to the sender
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The command executor
+     * @param label The label the command was executed with
+     * @param args The arguments remaining after this node's name
+     * @return {@code true} if the returned {@link CommandStatus} was not a
+     *         {@link CommandStatus#FAILED}
+     */
+    final boolean run(CommandSender sender, String label, ArgumentView args) {
         CommandStatus stat;
+        long start = 0;
         try {
-            stat = this.verifyState(child, sender, args);
+            stat = this.verifyState(sender, args.size());
+            ParsedArguments parsed = null;
+            if (stat == null && this.arguments != null) {
+                parsed = this.arguments.parse(sender, args);
+                if (parsed == null) {
+                    stat = CommandStatus.BAD_ARGS;
+                }
+            }
+            if (stat == null && this.limiter != null && this.limiter.tryAcquire(sender) > 0) {
+                stat = CommandStatus.COOLDOWN; //only taken once nothing else can refuse the command
+            }
             if (stat == null) {
-                stat = child.execute(sender, args);
+                start = System.nanoTime();
+                stat = parsed == null ? this.execute(sender, args) : this.execute(sender, parsed);
+                if (stat != CommandStatus.ASYNC) { //recorded upon completion instead
+                    this.metrics.recordExecution(System.nanoTime() - start);
+                }
             }
         } catch (Throwable ex) {
+            if (start != 0) {
+                this.metrics.recordExecution(System.nanoTime() - start);
+            }
             stat = CommandStatus.FAILED;
-            child.plugin.getLogger().log(Level.SEVERE, String.format("Unhandled exception executing command '%s %s'", label, StringUtils.join(args, " ")), ex);
+            this.plugin.getLogger().log(Level.SEVERE, String.format("Unhandled exception executing command '%s %s'", label, args.join(" ")), ex);
+        }
+        if (stat != null && stat != CommandStatus.ASYNC) {
+            this.metrics.recordStatus(stat);
         }
+        this.relay(sender, stat, args);
+        return stat != CommandStatus.FAILED;
+    }
+
+    /**
+     * Relays the result of executing this node to the sender
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The command executor
+     * @param stat The {@link CommandStatus} the execution resulted in
+     * @param args The arguments the node was executed with
+     * @throws IllegalReturnException If {@code stat} is {@code null}
+     */
+    final void relay(CommandSender sender, CommandStatus stat, ArgumentView args) {
         //Purposely catch NPE and rethrow
         try {
-            stat.handle(sender, child.format, child);
+            stat.handle(sender, this.format, this, args);
         } catch (NullPointerException ex) {
             throw new IllegalReturnException("Cannot return null from CommandNode#execute", ex);
         }
-        return stat != CommandStatus.FAILED;
     }
 
     /**
@@ -185,32 +378,113 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      */
     public abstract CommandStatus execute(CommandSender sender, String... args);
 
+    /**
+     * Represents the code at the end of a {@link CommandNode} chain, receiving
+     * its arguments as a read-only view over the original command arguments.
+     * Nodes which only read their arguments can override this to avoid copying
+     * them into a new array, by default this forwards a copy to
+     * {@link CommandNode#execute(CommandSender, String...)}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The command executor
+     * @param args A view of the command arguments, starting after the
+     *             subcommand name
+     *
+     * @return The {@link CommandStatus} representing the result of the command.
+     *         This will throw an NPE if {@code null} is returned
+     */
+    public CommandStatus execute(CommandSender sender, ArgumentView args) {
+        return this.execute(sender, args.toArray());
+    }
+
+    /**
+     * Represents the code at the end of a {@link CommandNode} chain for nodes
+     * which declare their arguments through {@link CommandNode#getArguments()}.
+     * This is only called once the arguments have been successfully parsed,
+     * otherwise {@link CommandStatus#BAD_ARGS} is returned on the node's
+     * behalf. By default this forwards the raw arguments to
+     * {@link CommandNode#execute(CommandSender, ArgumentView)}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The command executor
+     * @param args The parsed command arguments
+     *
+     * @return The {@link CommandStatus} representing the result of the command.
+     *         This will throw an NPE if {@code null} is returned
+     */
+    public CommandStatus execute(CommandSender sender, ParsedArguments args) {
+        return this.execute(sender, args.getRaw());
+    }
+
     //Returns a not-null CommandStatus if the CommandSender or args can't be used
-    private CommandStatus verifyState(CommandNode<?> child, CommandSender sender, String... args) {
-        if (args.length < child.minArgs) {
+    private CommandStatus verifyState(CommandSender sender, int argCount) {
+        if (argCount < this.minArgs) {
             return CommandStatus.BAD_ARGS;
         }
-        if (child.restriction != null && !child.restriction.verifySender(sender)) {
+        if (this.restriction != null && !this.restriction.verifySender(sender)) {
             return this.restriction;
         }
-        if (!child.allowProxies && sender instanceof ProxiedCommandSender) {
+        if (!this.allowProxies && sender instanceof ProxiedCommandSender) {
             return CommandStatus.NO_PROXIES;
         }
-        if (!child.perms.stream().allMatch(p -> p.has(sender))) {
+        if (!this.hasPermissions(sender)) {
             return CommandStatus.NO_PERMISSION;
         }
-        if (!child.isExecutable()) {
+        if (!this.isExecutable()) {
             return CommandStatus.NOT_EXECUTABLE;
         }
         return null;
     }
 
+    //Returns the permissions required by this node, must not be modified
+    final Permissions[] getPermissions() {
+        return this.perms;
+    }
+
+    //Returns the sender type this node is restricted to, or null if none
+    final CommandStatus getRestriction() {
+        return this.restriction;
+    }
+
+    //Returns false if proxied senders may not execute this node
+    final boolean allowsProxies() {
+        return this.allowProxies;
+    }
+
+    //Returns the visibility index of the tree below this node, rebuilt when stale
+    final VisibilityIndex getVisibility() {
+        VisibilityIndex index = this.visibility;
+        if (index == null || !index.getStamp().isCurrent()) {
+            index = new VisibilityIndex(this);
+            if (index.getStamp().isPublishable()) { //don't publish an index of a half-made change
+                this.visibility = index;
+            }
+        }
+        return index;
+    }
+
+    //Returns true if the sender has every permission required by this node
+    private boolean hasPermissions(CommandSender sender) {
+        for (Permissions p : this.perms) {
+            if (!p.has(sender)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
-     * Called from Bukkit to indicate a call for tab completing
+     * Called from Bukkit to indicate a call for tab completing. As with
+     * {@link CommandNode#onCommand(CommandSender, Command, String, String[])},
+     * only direct invocations pay for caller verification
      * <br><br> {@inheritDoc}
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param sender {@inheritDoc}
      * @param command {@inheritDoc}
@@ -221,21 +495,40 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
     @Override
     public final List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         Exceptions.illegalInvocation(ReflectBukkit.accessedFromBukkit(), "Only bukkit may call this method");
-        CommandNode<? extends Plugin> child = this.getClosestChild(StringUtils.join(args, " "));
+        return this.dispatchTabComplete(sender, args);
+    }
+
+    //Tab completes the command chain, caller must already be verified
+    private List<String> dispatchTabComplete(CommandSender sender, String[] args) {
+        long start = System.nanoTime();
+        CommandRouter router = this.getRouter();
+        CommandRouter.Route route = router.getRoot();
+        int depth = 0;
+        for (; depth < args.length - 1; depth++) { //the last argument is still being typed
+            CommandRouter.Route next = route.getChild(args[depth]);
+            if (next == null) {
+                break;
+            }
+            route = next;
+        }
+        CommandNode<?> child = route.getNode();
+        ArgumentView rest = new ArgumentView(args, depth, args.length - depth);
         List<String> back = new ArrayList<>();
-        List<String> tabd = child.tabComplete(sender, args);
+        List<String> tabd = child.tabComplete(sender, rest.toArray());
         Exceptions.notNull(tabd, "Cannot return null from CommandNode#tabComplete", IllegalReturnException.class);
         Exceptions.isTrue(tabd.stream().noneMatch(Lambdas::isNull), "Cannot return null elements from CommandNode#tabComplete", IllegalReturnException.class);
         back.addAll(tabd);
-        if (!child.subcommands.isEmpty()) {
-            List<String> valid = child.subcommands.entrySet().stream().filter(ent -> {
-                return ent.getValue().perms.stream().allMatch(p -> p.has(sender));
-            }).map(ent -> ent.getKey()).collect(Collectors.toList());
-            if (args.length == 1) {
-                valid.removeIf(s -> !s.startsWith(args[0]));
+        if (child.arguments != null) {
+            back.addAll(child.arguments.complete(sender, rest));
+        }
+        if (rest.size() <= 1) {
+            for (String name : route.complete(rest.isEmpty() ? null : rest.get(0))) {
+                if (route.getChild(name).getNode().hasPermissions(sender)) {
+                    back.add(name);
+                }
             }
-            back.addAll(valid);
         }
+        child.metrics.recordTabComplete(System.nanoTime() - start);
         return back;
     }
 
@@ -265,31 +558,113 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
     public abstract String getName();
 
     /**
-     * Returns the command usage
+     * Returns the command usage. This is computed once and kept until the
+     * node is moved within a tree, so {@link CommandNode#usage()} is expected
+     * not to change after construction
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @return Usage for this {@link CommandNode}
      */
     public final String getUsage() {
-        String append = this.getName() + " " + this.usage();
-        if (this.parent != null) {
-            return CommandNode.filterUsage(this.parent.getUsage()) + " " + append;
+        return this.getPathInfo().usage;
+    }
+
+    /**
+     * Returns the command usage with any usage tags removed, as per
+     * {@link CommandNode#filterUsage(String)}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The filtered usage for this {@link CommandNode}
+     */
+    public final String getFilteredUsage() {
+        return this.getPathInfo().filtered;
+    }
+
+    /**
+     * Returns the number of parents above this node
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The depth of this node, {@code 0} for a root node
+     */
+    public final int getDepth() {
+        return this.getPathInfo().depth;
+    }
+
+    //Returns the memoized path information, computing it if stale
+    private PathInfo getPathInfo() {
+        PathInfo info = this.pathInfo;
+        if (info == null) {
+            PathInfo above = this.parent == null ? null : this.parent.getPathInfo();
+            String append = this.getName() + " " + this.usage();
+            info = above == null
+                    ? new PathInfo(append, 0)
+                    : new PathInfo(above.filtered + " " + append, above.depth + 1);
+            this.pathInfo = info;
+        }
+        return info;
+    }
+
+    //Clears memoized values for this node and every node above it
+    private void invalidateUp() {
+        for (CommandNode<? extends Plugin> n = this; n != null; n = n.parent) {
+            n.aliases = null;
+        }
+    }
+
+    //Clears memoized path values for this node and every node below it
+    private void invalidateDown() {
+        Map<CommandNode<?>, Boolean> seen = new IdentityHashMap<>();
+        List<CommandNode<? extends Plugin>> queue = new ArrayList<>();
+        queue.add(this);
+        for (int i = 0; i < queue.size(); i++) {
+            CommandNode<? extends Plugin> n = queue.get(i);
+            if (seen.put(n, Boolean.TRUE) == null) {
+                n.pathInfo = null;
+                n.aliases = null;
+                queue.addAll(n.subcommands.values());
+            }
         }
-        return append;
     }
 
     /**
      * Describes the usage in the context of this specific {@link CommandNode}
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
-     * @return The usage, defaults to {@link CommandNode#getName()}
+     * @return The usage, defaults to the usage of any declared
+     *         {@link ArgumentSchema}
      */
     protected String usage() {
-        return "";
+        return this.arguments == null ? "" : this.arguments.getUsage();
+    }
+
+    /**
+     * Returns the {@link ArgumentSchema} of this node, creating it if no
+     * arguments have been declared yet. Declaring any argument makes the
+     * node's arguments be parsed before execution, see
+     * {@link CommandNode#execute(CommandSender, ParsedArguments)}. Arguments
+     * should only be declared while constructing the node, for example:
+     * <br><br>
+     * {@code private final Argument<Integer> page =
+     * this.getArguments().optional("page", ArgumentParsers.intRange(1, 100), 1);}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link ArgumentSchema} of this node
+     */
+    protected final ArgumentSchema getArguments() {
+        if (this.arguments == null) {
+            this.arguments = new ArgumentSchema();
+        }
+        return this.arguments;
     }
 
     /**
@@ -319,44 +694,82 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * mappings
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param parent The {@link CommandNode} parent to set
      */
     private void setParent(CommandNode<? extends Plugin> parent) {
-        if (this.getParent() != null) {
-            this.getParent().subcommands.remove(this.getName());
-        }
-        this.parent = parent;
-        if (this.getParent() != null) {
-            this.getParent().subcommands.put(this.getName(), this);
+        CommandNode<?>[] nodes = parent == null ? new CommandNode<?>[] {this} : new CommandNode<?>[] {this, parent};
+        CommandNode.mutate(() -> {
+            if (this.getParent() != null) {
+                this.getParent().removeSubcommand(this.getName());
+                this.getParent().invalidateUp();
+            }
+            this.parent = parent;
+            this.invalidateDown();
+            if (this.getParent() != null) {
+                this.getParent().putSubcommand(this.getName(), this);
+                this.getParent().invalidateUp();
+                this.suggestions = null; //no longer a root
+            }
+        }, nodes);
+    }
+
+    //Returns the topmost parent of this node, whose tree version covers it
+    final CommandNode<? extends Plugin> getRoot() {
+        CommandNode<? extends Plugin> back = this;
+        while (back.parent != null) {
+            back = back.parent;
         }
+        return back;
+    }
+
+    //Returns the version of the tree this node is the root of, odd mid-mutation
+    final long getTreeVersion() {
+        return this.treeVersion;
+    }
+
+    //Returns the names from the root to this node, space separated
+    private String getPath() {
+        return this.parent == null ? this.getName() : this.parent.getPath() + " " + this.getName();
     }
 
     /**
-     * Adds new child subcommands to this {@link CommandNode}
+     * Adds new child subcommands to this {@link CommandNode}, as a single
+     * tree mutation
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param children Any {@link CommandNode CommandNodes} to add
      */
+    @SafeVarargs
     public final void addChild(CommandNode<? extends Plugin>... children) {
-        for (CommandNode<? extends Plugin> ccmd : children) {
-            ccmd.setParent(this);
+        CommandNode<?>[] nodes = new CommandNode<?>[children.length + 1];
+        for (int i = 0; i < children.length; i++) {
+            nodes[i] = children[i];
         }
+        nodes[children.length] = this;
+        CommandNode.mutate(() -> {
+            for (CommandNode<? extends Plugin> ccmd : children) {
+                ccmd.setParent(this);
+            }
+        }, nodes);
     }
 
     /**
      * Removes a child subcommand that is active under this {@link CommandNode}
      *
      * @since 0.2.0
-     * @version 0.2.0
+     * @version 0.3.1
      *
      * @param name The command label of the {@link CommandNode} to remove
      */
     protected final void removeChild(String name) {
-        this.subcommands.remove(name);
+        CommandNode.mutate(() -> {
+            this.removeSubcommand(name);
+            this.invalidateUp();
+        }, this);
     }
 
     /**
@@ -370,21 +783,37 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
     }
 
     /**
-     * Adds new child subcommands to this {@link CommandNode}
+     * Adds new child subcommands to this {@link CommandNode}, as a single
+     * tree mutation
      * 
      * @since 0.2.0
-     * @version 0.2.0
+     * @version 0.3.1
      * 
      * @param children Any {@link CommandNode CommandNodes} to add
      */
     @SafeVarargs
     public final void addChild(Function<E, CommandNode<? extends Plugin>>... children) {
-        for (Function<E, CommandNode<? extends Plugin>> child : children) {
-            CommandNode<? extends Plugin> ccmd = child.apply(this.plugin);
-            if (ccmd != null) {
-                ccmd.setParent(this);
+        CommandNode.mutate(() -> {
+            for (Function<E, CommandNode<? extends Plugin>> child : children) {
+                CommandNode<? extends Plugin> ccmd = child.apply(this.plugin);
+                if (ccmd != null) {
+                    ccmd.setParent(this);
+                }
             }
-        }
+        }, this);
+    }
+
+    /**
+     * Returns a new {@link TreeEditor}, which collects changes to command
+     * trees and applies them together as a single atomic mutation
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return A new {@link TreeEditor}
+     */
+    protected final TreeEditor edit() {
+        return new TreeEditor();
     }
 
     /**
@@ -454,7 +883,20 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * @return A {@link Collection} of all registered {@link CommandNode}
      */
     public final Collection<CommandNode<? extends Plugin>> getChildren() {
-        return Collections.unmodifiableCollection(this.subcommands.values());
+        return this.subcommands.values();
+    }
+
+    /**
+     * Returns the subcommand mappings of this node by name, including any
+     * aliases mapped under this node
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An unmodifiable view of the subcommand mappings
+     */
+    final Map<String, CommandNode<? extends Plugin>> getSubcommands() {
+        return this.subcommands;
     }
 
     /**
@@ -463,7 +905,7 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * <br><br> {@inheritDoc}
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param o The {@link CommandNode} to compare to
      * @return {@inheritDoc}
@@ -471,7 +913,7 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
     @Override
     public final int compareTo(CommandNode<?> o) {
         //Do not check for null, comparable contract calls for NPE
-        return this.getUsage().compareTo(o.getUsage());
+        return this.getPathInfo().usage.compareTo(o.getPathInfo().usage);
     }
 
 
@@ -479,13 +921,13 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * Traverses the command tree with no restrictions (shows all commands)
      *
      * @since 0.2.0
-     * @version 0.2.0
+     * @version 0.3.1
      *
      * @see CommandNode#traverse(CommandSender, boolean)
-     * @return
+     * @return All executable {@link CommandNode} objects below this node
      */
     public Collection<CommandNode<? extends Plugin>> traverse() {
-        return this.traverse(null, false);
+        return new ArrayList<>(this.getVisibility().getAll());
     }
 
     /**
@@ -500,26 +942,33 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * {@code true}
      * </ul>
      *
+     * If {@code restrictions} is {@code true}, only nodes the sender is able
+     * to reach are returned: every node on the path to them must accept the
+     * sender's type and permissions. The returned nodes are sorted by usage
+     *
      * @since 0.1.0
-     * @version 0.2.0
+     * @version 0.3.1
      *
+     * @param sender The {@link CommandSender} to filter for, if restricting
+     * @param restrictions {@code true} to filter the nodes by the sender
      * @return All found {@link CommandNode} children for this node
      */
     public Collection<CommandNode<? extends Plugin>> traverse(CommandSender sender, boolean restrictions) {
-        Stream<CommandNode<? extends Plugin>> str = this.subcommands.values().stream()
-                .filter(c -> this == c.getParent())
-                .filter(c -> c.getClass() != HelpCommand.class);
-        if (restrictions) {
-            str = str.filter(c -> c.restriction == null || c.restriction.verifySender(sender))
-                    .filter(c -> c.perms.stream().allMatch(p -> p.has(sender)))
-                    .filter(c -> c.allowProxies || sender instanceof ProxiedCommandSender);
-        }
-        Collection<CommandNode<? extends Plugin>> back = str.map(c -> c.traverse(sender, restrictions))
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-        back.add(this); //potential break point?
-        back.removeIf(c -> !c.isExecutable()); //leave after the #filter calls so linking nodes make it through
-        return back;
+        return restrictions ? this.getVisibility().getVisibleNodes(sender) : this.traverse();
+    }
+
+    /**
+     * Returns every executable {@link CommandNode} below this node that the
+     * passed {@link CommandSender} is able to execute, sorted by usage
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} to list commands for
+     * @return The sender's available commands, as an unmodifiable list
+     */
+    public final List<CommandNode<? extends Plugin>> getVisibleCommands(CommandSender sender) {
+        return Collections.unmodifiableList(this.getVisibility().getVisibleNodes(sender));
     }
 
     /**
@@ -527,42 +976,105 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * aliases of other {@link CommandNode CommandNodes}
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
-     * @return Any aliased {@link CommandNode} objects
+     * @return Any aliased {@link CommandNode} objects, as an unmodifiable map
      */
     public final Map<String, CommandNode<? extends Plugin>> getAliases() {
-        return this.subcommands.entrySet().stream().filter(c -> {
-            return this != c.getValue().getParent();
-        }).collect(Collectors.toMap(
-                (c) -> this.getUsage() + " " + c.getKey(),
-                (c) -> c.getValue()
-        ));
+        Map<String, CommandNode<? extends Plugin>> back = this.aliases;
+        if (back == null) {
+            back = new HashMap<>();
+            for (Map.Entry<String, CommandNode<? extends Plugin>> ent : this.subcommands.entrySet()) {
+                if (this != ent.getValue().getParent()) {
+                    back.put(this.getUsage() + " " + ent.getKey(), ent.getValue());
+                }
+            }
+            back = Collections.unmodifiableMap(back);
+            this.aliases = back;
+        }
+        return back;
     }
 
     /**
-     * Finds the closest possible matches when a player executes a
-     * non-executable node
+     * Finds the nearest commands to what a sender typed when reaching this
+     * node, for use when this node is not executable. If nothing was typed
+     * past this node, the nearest executable commands below it are returned.
+     * Only commands the sender is able to execute are suggested
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
-     * @return Up to 3 of the nearest possible commands, can exceed 3 if the
-     *         current node has more than 3 direct children that are executable
-     */
-    final List<CommandNode<? extends Plugin>> closestCommands() {
-        if (this.subcommands.isEmpty()) {
-            return new ArrayList<>();
-        } else if (this.subcommands.values().stream().noneMatch(CommandNode::isExecutable)) {
-            List<CommandNode<? extends Plugin>> back = new ArrayList<>();
-            this.subcommands.values().forEach(c -> back.addAll(c.closestCommands()));
-            if (back.size() > 3) {
-                return back.subList(0, 2);
-            }
+     * @param sender The {@link CommandSender} to suggest commands for
+     * @param args The arguments typed after this node
+     * @param limit The maximum number of suggestions
+     * @return The usage of up to {@code limit} of the nearest commands
+     */
+    final List<String> closestCommands(CommandSender sender, ArgumentView args, int limit) {
+        List<String> back = new ArrayList<>();
+        if (args.isEmpty()) {
+            this.getVisibility().getVisibleNodes(sender).stream()
+                    .filter(c -> c != this)
+                    .sorted(Comparator.comparingInt(CommandNode::getDepth)) //stable, nearest first
+                    .limit(limit)
+                    .forEach(c -> back.add(c.getUsage()));
             return back;
-        } else {
-            return new ArrayList<>(this.subcommands.values().stream()
-                    .filter(CommandNode::isExecutable).collect(Collectors.toList()));
+        }
+        CommandNode<? extends Plugin> root = this.getRoot();
+        VisibilityIndex index = root.getVisibility();
+        BitSet visible = index.getVisible(sender);
+        String[] path = this.getPath().split(" ");
+        String[] typed = Arrays.copyOf(path, path.length + args.size());
+        for (int i = 0; i < args.size(); i++) {
+            typed[path.length + i] = args.get(i);
+        }
+        for (SuggestionIndex.Entry e : root.getSuggestions().query(typed, path.length, c -> {
+            int at = index.indexOf(c);
+            return at < 0 ? c.isVisibleTo(sender) : visible.get(at); //unindexed if under a help node
+        }, limit)) {
+            String usage = e.getNode().usage().trim();
+            back.add(usage.isEmpty() ? e.getPath() : e.getPath() + " " + usage);
+        }
+        return back;
+    }
+
+    //Returns the suggestion index of the tree below this node, rebuilt when stale
+    private SuggestionIndex getSuggestions() {
+        SuggestionIndex index = this.suggestions;
+        if (index == null || !index.getStamp().isCurrent()) {
+            index = SuggestionIndex.build(this);
+            if (index.getStamp().isPublishable()) { //don't publish an index of a half-made change
+                this.suggestions = index;
+            }
+        }
+        return index;
+    }
+
+    //Returns true if the sender may execute this node
+    private boolean isVisibleTo(CommandSender sender) {
+        return this.isExecutable()
+                && (this.restriction == null || this.restriction.verifySender(sender))
+                && (this.allowProxies || !(sender instanceof ProxiedCommandSender))
+                && this.hasPermissions(sender);
+    }
+
+    /**
+     * Commands executed through this node are always dispatched from an
+     * immutable snapshot of its tree, which is recompiled upon the first
+     * execution after the tree changes. This compiles the snapshot ahead of
+     * time, and makes subcommand names match case-insensitively from then on.
+     * This is meant to be called once the tree is finished
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    public final void compileRoutes() {
+        this.ignoreCase = true;
+        CommandNode<? extends Plugin> root = this.getRoot();
+        root.treeLock.lock();
+        try {
+            this.router = CommandRouter.compile(this, true);
+        } finally {
+            root.treeLock.unlock();
         }
     }
 
@@ -577,6 +1089,29 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
         this.addChild(new ReloadCommand<>(this.plugin));
     }
 
+    /**
+     * Attaches a {@link StatsCommand} to this command object, which reports
+     * the slowest and most failing commands in this node's tree
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    protected final void attachStatsCommand() {
+        this.addChild(new StatsCommand<>(this.plugin));
+    }
+
+    /**
+     * Returns the execution statistics collected for this node
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link CommandMetrics} for this node
+     */
+    public final CommandMetrics getMetrics() {
+        return this.metrics;
+    }
+
     /**
      * Sets whether or not this {@link CommandNode} can be executed. If this is
      * set to {@code false}, then the returned value of
@@ -592,7 +1127,7 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * @param executable {@code true} if this node can be directly executed
      */
     protected final void setExecutable(boolean executable) {
-        this.executable = executable;
+        CommandNode.mutate(() -> this.executable = executable, this);
     }
 
     /**
@@ -605,7 +1140,11 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      */
     protected final void requirePermission(Permissions perm) {
         Validate.notNull(perm);
-        this.perms.add(perm);
+        CommandNode.mutate(() -> {
+            Permissions[] next = Arrays.copyOf(this.perms, this.perms.length + 1);
+            next[this.perms.length] = perm;
+            this.perms = next;
+        }, this);
     }
 
     /**
@@ -632,6 +1171,53 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
         this.minArgs = minimum;
     }
 
+    /**
+     * Limits each sender to {@code uses} executions of this node per
+     * {@code period}. Players are limited individually, while other senders
+     * are limited per type of sender. Senders over the limit receive
+     * {@link CommandStatus#COOLDOWN}. Only executions which pass every other
+     * check, including parsing any declared arguments, count against the
+     * limit
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see RateLimiter
+     * @param uses The number of executions allowed per period
+     * @param period The length of the period
+     * @param unit The {@link TimeUnit} of {@code period}
+     */
+    protected final void setRateLimit(int uses, long period, TimeUnit unit) {
+        this.limiter = new RateLimiter(uses, period, unit);
+    }
+
+    /**
+     * Requires each sender to wait the passed amount of time between
+     * executions of this node
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see CommandNode#setRateLimit(int, long, TimeUnit)
+     * @param time The time between executions
+     * @param unit The {@link TimeUnit} of {@code time}
+     */
+    protected final void setCooldown(long time, TimeUnit unit) {
+        this.setRateLimit(1, time, unit);
+    }
+
+    /**
+     * Returns the {@link RateLimiter} applied to this node
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link RateLimiter}, or {@code null} if there is none
+     */
+    public final RateLimiter getRateLimiter() {
+        return this.limiter;
+    }
+
     /**
      * Disallows execution of this {@link CommandNode} by a ProxiedCommandSender
      * 
@@ -639,7 +1225,7 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * @version 0.1.0
      */
     public final void disallowProxiedSenders() {
-        this.allowProxies = false;
+        CommandNode.mutate(() -> this.allowProxies = false, this);
     }
 
     /**
@@ -666,7 +1252,7 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
             case RCON_ONLY:
             case COMMAND_BLOCK_ONLY:
             case MINECART_ONLY:
-                this.restriction = restriction;
+                CommandNode.mutate(() -> this.restriction = restriction, this);
                 break;
             default:
                 throw new IllegalArgumentException("Bad type for CommandStatus");
@@ -699,37 +1285,41 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * via {@link CommandNode#getLinkingNode(String, Plugin, Consumer)}
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param <T> The type of the passed {@link CommandNode} alias's plugin
      * @param toAlias The {@link CommandNode} to alias
      * @param args The arguments chaining from this node to the alias
      */
     public final <T extends Plugin> void alias(CommandNode<T> toAlias, String... args) {
-        if (args.length <= 0) {
-            this.subcommands.put(toAlias.getName(), toAlias);
-        }
-        CommandNode<? extends Plugin> child = this;
-        for (int i = 0; i < args.length; i++) {
-            if (i == args.length - 1) {
-                child.subcommands.put(args[i], toAlias);
+        CommandNode.mutate(() -> {
+            if (args.length <= 0) {
+                this.putSubcommand(toAlias.getName(), toAlias);
             }
-            if (child.getChild(args[i]) == null) {
-                final CommandNode<? extends Plugin> parent = child;
-                CommandNode<T> put = CommandNode.getLinkingNode(args[i], toAlias.plugin, (node) -> node.setParent(parent));
-                child.subcommands.put(args[i], put);
-                child = put;
-            } else {
-                child = child.getChild(args[i]);
+            CommandNode<? extends Plugin> child = this;
+            for (int i = 0; i < args.length; i++) {
+                if (i == args.length - 1) {
+                    child.putSubcommand(args[i], toAlias);
+                    child.invalidateUp();
+                }
+                if (child.getChild(args[i]) == null) {
+                    final CommandNode<? extends Plugin> parent = child;
+                    CommandNode<T> put = CommandNode.getLinkingNode(args[i], toAlias.plugin, (node) -> node.setParent(parent));
+                    child.putSubcommand(args[i], put);
+                    child = put;
+                } else {
+                    child = child.getChild(args[i]);
+                }
             }
-        }
+            this.invalidateUp();
+        }, this);
     }
 
     /**
      * Allows this {@link CommandNode} to be executed from Bukkit directly
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param cmd The command to register as under Bukkit
      */
@@ -737,21 +1327,27 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
         String token = cmd.split(" ")[0];
         PluginCommand bcmd = this.getBukkitCommand(token, this.plugin);
         if (bcmd != null) {
+            bcmd.setExecutor(this.executor);
+            bcmd.setTabCompleter(this.executor);
             this.registerBukkitCommand(bcmd);
         }
     }
 
     /**
      * Registers this {@link CommandNode} as a bukkit-executable command, and
-     * places this {@link CommandNode} as the command name
+     * places this {@link CommandNode} as the command name. The executor given
+     * to Bukkit is a trusted wrapper around this node, which skips the
+     * caller verification done in
+     * {@link CommandNode#onCommand(CommandSender, Command, String, String[])}
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      */
     protected final void registerAsBukkitCommand() {
         PluginCommand cmd = this.plugin.getServer().getPluginCommand(this.getName());
         Validate.notNull(cmd, "Attempted to register a non-existant command");
-        cmd.setExecutor(this);
+        cmd.setExecutor(this.executor);
+        cmd.setTabCompleter(this.executor);
     }
 
     /**
@@ -812,6 +1408,32 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
         }
     }
 
+    /**
+     * The {@link CommandExecutor} and {@link TabCompleter} registered to Bukkit
+     * on behalf of a {@link CommandNode}. Dispatch through this executor skips
+     * the stack walk that checks calls are made by the command map. It is
+     * only as trusted as {@link PluginCommand#execute}, since any plugin can
+     * retrieve it through {@link PluginCommand#getExecutor()} or
+     * {@link PluginCommand#getTabCompleter()} and call it directly.
+     *
+     * @since 0.3.1
+     * @author 1Rogue
+     * @version 0.3.1
+     */
+    private final class BukkitExecutor implements CommandExecutor, TabCompleter {
+
+        @Override
+        public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+            return CommandNode.this.dispatchCommand(sender, label, args);
+        }
+
+        @Override
+        public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+            return CommandNode.this.dispatchTabComplete(sender, args);
+        }
+
+    }
+
     /**
      * Returns an anonymous {@link CommandNode} instance which is defined as
      * non-executable {@link CommandNode} used for chaining together other
@@ -869,13 +1491,17 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
      * Filters out "usage tags" such as {@code [tag]} or {@code <tag>}
      * 
      * @since 0.1.0
-     * @version 0.l.0
+     * @version 0.3.1
      * 
      * @param usageRaw The raw usage string to modify
      * @return The newly formatted usage string
      */
     public static String filterUsage(String usageRaw) {
-        return usageRaw.replaceAll("\\[.*\\]", "").replaceAll("\\<.*\\>", "").trim();
+        if (usageRaw.indexOf('[') < 0 && usageRaw.indexOf('<') < 0) {
+            return usageRaw.trim();
+        }
+        String back = CommandNode.OPTIONAL_TAG.matcher(usageRaw).replaceAll("");
+        return CommandNode.REQUIRED_TAG.matcher(back).replaceAll("").trim();
     }
 
     @Override
@@ -899,4 +1525,19 @@ public abstract class CommandNode<E extends Plugin> implements CommandExecutor,
         }
         return null;
     }
+    //Memoized values derived from this node's position in its tree
+    private static final class PathInfo {
+
+        private final String usage;
+        private final String filtered;
+        private final int depth;
+
+        private PathInfo(String usage, int depth) {
+            this.usage = usage;
+            this.filtered = CommandNode.filterUsage(usage);
+            this.depth = depth;
+        }
+
+    }
+
 }
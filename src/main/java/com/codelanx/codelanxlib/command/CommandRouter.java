@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import com.codelanx.codelanxlib.util.PrefixIndex;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable routing table compiled from a {@link CommandNode} tree. Each
+ * node of the tree (including aliases and linking nodes) becomes a single
+ * {@link Route}, which holds its subcommand names in a sorted array so that
+ * resolving an argument is a binary search rather than a map lookup. As the
+ * table never changes once compiled, it also serves as a consistent snapshot
+ * of the tree for dispatch and tab completion from any thread
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+final class CommandRouter {
+
+    /** All routes in this table, the root is always at index 0 */
+    private final Route[] routes;
+    /** The versions of the trees this table was compiled from */
+    private final TreeStamp stamp;
+
+    /**
+     * Constructor. Assigns parameters to fields
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param routes The compiled routes
+     * @param stamp The versions of the trees compiled from
+     */
+    private CommandRouter(Route[] routes, TreeStamp stamp) {
+        this.routes = routes;
+        this.stamp = stamp;
+    }
+
+    /**
+     * Flattens the tree below the passed {@link CommandNode} into a new
+     * {@link CommandRouter}. Nodes reachable through more than one path (such
+     * as aliases) are compiled only once, and the version of every tree read
+     * along the way is recorded
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param root The root of the tree to compile
+     * @param ignoreCase Whether subcommand names should match regardless of
+     *                   case
+     * @return The compiled {@link CommandRouter}
+     */
+    static CommandRouter compile(CommandNode<?> root, boolean ignoreCase) {
+        TreeStamp stamp = new TreeStamp();
+        Map<CommandNode<?>, Integer> indices = new IdentityHashMap<>();
+        List<CommandNode<?>> order = new ArrayList<>();
+        indices.put(root, 0);
+        order.add(root);
+        for (int i = 0; i < order.size(); i++) { //breadth-first, order grows as we go
+            stamp.track(order.get(i)); //aliases may lead into another tree
+            for (CommandNode<? extends Plugin> child : order.get(i).getChildren()) {
+                if (!indices.containsKey(child)) {
+                    indices.put(child, order.size());
+                    order.add(child);
+                }
+            }
+        }
+        Route[] routes = new Route[order.size()];
+        for (int i = 0; i < routes.length; i++) {
+            routes[i] = new Route(routes, order.get(i), indices, ignoreCase);
+        }
+        return new CommandRouter(routes, stamp);
+    }
+
+    /**
+     * Resolves the passed arguments to the deepest matching route and runs
+     * its {@link CommandNode}. The remaining arguments are passed on as a
+     * view over {@code args}, which is not copied
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The command executor
+     * @param label The label the command was executed with
+     * @param args The raw command arguments
+     * @return {@code true} if the command did not fail
+     */
+    boolean dispatch(CommandSender sender, String label, String[] args) {
+        Route route = this.routes[0];
+        int start = 0;
+        for (; start < args.length; start++) {
+            Route next = route.getChild(args[start]);
+            if (next == null) {
+                break;
+            }
+            route = next;
+        }
+        return route.node.run(sender, label, new ArgumentView(args, start, args.length - start));
+    }
+
+    /**
+     * Returns the versions of the trees this table was compiled from
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link TreeStamp} of this table
+     */
+    TreeStamp getStamp() {
+        return this.stamp;
+    }
+
+    /**
+     * Returns the route of the node this table was compiled from
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The root {@link Route}
+     */
+    Route getRoot() {
+        return this.routes[0];
+    }
+
+    /**
+     * A single compiled node in the routing table
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    static final class Route {
+
+        /** Every route of the owning table */
+        private final Route[] routes;
+        /** The {@link CommandNode} executed when a chain ends here */
+        private final CommandNode<?> node;
+        /** The order {@link #names} are sorted and searched in */
+        private final Comparator<String> order;
+        /** Subcommand names, sorted by {@link #order} */
+        private final String[] names;
+        /** Route indices of the subcommands, parallel to {@link #names} */
+        private final int[] targets;
+        /** Prefix index of {@link #names}, used for tab completion */
+        private final PrefixIndex index;
+
+        /**
+         * Constructor. Sorts the subcommands of the passed node
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @param routes Every route of the owning table
+         * @param node The {@link CommandNode} to compile
+         * @param indices The route index of every node in the tree
+         * @param ignoreCase Whether names should match regardless of case
+         */
+        private Route(Route[] routes, CommandNode<?> node, Map<CommandNode<?>, Integer> indices, boolean ignoreCase) {
+            this.routes = routes;
+            this.node = node;
+            this.order = ignoreCase ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+            Map<String, CommandNode<? extends Plugin>> subs = node.getSubcommands();
+            String[] names = subs.keySet().toArray(new String[subs.size()]);
+            Arrays.sort(names, this.order);
+            this.names = names;
+            this.targets = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                this.targets[i] = indices.get(subs.get(names[i]));
+            }
+            this.index = names.length == 0 ? PrefixIndex.EMPTY : PrefixIndex.of(Arrays.asList(names), ignoreCase);
+        }
+
+        /**
+         * Returns the {@link CommandNode} this route was compiled from
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @return The compiled {@link CommandNode}
+         */
+        CommandNode<?> getNode() {
+            return this.node;
+        }
+
+        /**
+         * Finds the route for a subcommand name
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @param name The subcommand name
+         * @return The subcommand's {@link Route}, or {@code null} if there is
+         *         no such subcommand
+         */
+        Route getChild(String name) {
+            int index = Arrays.binarySearch(this.names, name, this.order);
+            return index < 0 ? null : this.routes[this.targets[index]];
+        }
+
+        /**
+         * Returns the subcommand names starting with the passed prefix
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @param prefix The prefix to match, or {@code null} for all names
+         * @return A read-only {@link List} of the matching names
+         */
+        List<String> complete(String prefix) {
+            return this.index.startingWith(prefix);
+        }
+
+    }
+
+}
@@ -28,9 +28,9 @@ import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.command.RemoteConsoleCommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.minecart.CommandMinecart;
-import org.bukkit.plugin.Plugin;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents the status of an executed command, and is returned upon the
@@ -38,7 +38,7 @@ import java.util.List;
  *
  * @since 0.1.0
  * @author 1Rogue
- * @version 0.1.0
+ * @version 0.3.1
  */
 public enum CommandStatus {
 
@@ -63,7 +63,11 @@ public enum CommandStatus {
     /** The user does not have the appropriate permissions to execute this */
     NO_PERMISSION,
     /** The command is not meant to be an endpoint */
-    NOT_EXECUTABLE;
+    NOT_EXECUTABLE,
+    /** The sender must wait before executing the command again */
+    COOLDOWN,
+    /** The command is executing asynchronously, and will relay its result later */
+    ASYNC;
 
     /** Formatter arguments for output */
     private final Object[] args;
@@ -85,13 +89,29 @@ public enum CommandStatus {
      * Handles output to a {@link CommandSender} upon the execution of a command
      * 
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      * 
      * @param sender The {@link CommandSender} object that executed the command
      * @param format The {@link LangFile} being used as a format string
      * @param cmd The {@link CommandNode} that was executed
      */
     public void handle(CommandSender sender, Lang format, CommandNode<?> cmd) {
+        this.handle(sender, format, cmd, ArgumentView.EMPTY);
+    }
+
+    /**
+     * Handles output to a {@link CommandSender} upon the execution of a
+     * command, with the arguments it was executed with
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} object that executed the command
+     * @param format The {@link LangFile} being used as a format string
+     * @param cmd The {@link CommandNode} that was executed
+     * @param args The arguments the command was executed with
+     */
+    void handle(CommandSender sender, Lang format, CommandNode<?> cmd, ArgumentView args) {
         switch (this) {
             case FAILED:
                 Lang.sendMessage(sender, format, InternalLang.COMMAND_STATUS_FAILED);
@@ -110,13 +130,19 @@ public enum CommandStatus {
             case NO_PERMISSION:
                 Lang.sendMessage(sender, format, InternalLang.COMMAND_STATUS_NOPERM);
                 break;
+            case COOLDOWN:
+                double wait = cmd.getRateLimiter() == null ? 0
+                        : cmd.getRateLimiter().getWait(sender, TimeUnit.MILLISECONDS) / 1000D;
+                Lang.sendMessage(sender, format, InternalLang.COMMAND_STATUS_COOLDOWN, wait);
+                break;
             case NOT_EXECUTABLE:
-                List<CommandNode<? extends Plugin>> cmds = cmd.closestCommands();
-                if (cmds.size() > 3) {
-                    cmds = cmds.subList(0, 2);
+                List<String> cmds = cmd.closestCommands(sender, args, 3);
+                if (cmds.isEmpty()) {
+                    Lang.sendMessage(sender, format, InternalLang.COMMAND_STATUS_UNSUPPORTED);
+                    break;
                 }
                 StringBuilder sb = new StringBuilder();
-                cmds.forEach(c -> sb.append('\n').append('/').append(c.getUsage()));
+                cmds.forEach(c -> sb.append('\n').append('/').append(c));
                 Lang.sendMessage(sender, format, InternalLang.COMMAND_STATUS_NOTEXEC, sb.toString());
                 break;
         }
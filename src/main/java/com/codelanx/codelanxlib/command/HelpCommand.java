@@ -19,22 +19,20 @@
  */
 package com.codelanx.codelanxlib.command;
 
-import com.codelanx.commons.util.cache.Cache;
 import com.codelanx.codelanxlib.internal.InternalLang;
 import com.codelanx.codelanxlib.util.Paginator;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * Provides a listing of help information derived from all {@link CommandNode}
@@ -43,18 +41,32 @@ import java.util.stream.IntStream;
  *
  * @since 0.0.1
  * @author 1Rogue
- * @version 0.2.0
+ * @version 0.3.1
  *
  * @param <E> The {@link Plugin} that caused this class to be instantiated
  */
 public final class HelpCommand<E extends Plugin> extends CommandNode<E> {
 
-    /** Stores a {@link Paginator} cache per player */
-    private final Map<UUID, Cache<Paginator>> pages = new HashMap<>(); //TODO: Use IdentityMap
-    /** Internal {@link Paginator} cache per {@link CommandSender}, used to pre-render and output pages */
-    private final Map<Class<? extends CommandSender>, Cache<Paginator>> oddSenders = new HashMap<>();
+    /** The maximum number of rendered {@link Paginator} objects to keep */
+    private static final int MAX_CACHED_PAGES = 64;
+    /** How long a rendered {@link Paginator} is kept, in nanoseconds */
+    private static final long PAGE_TTL = TimeUnit.MINUTES.toNanos(5);
+    /** Rendered {@link Paginator} objects by visible index groups, in LRU order */
+    private final Map<BitSet, CachedPages> pages = new LinkedHashMap<BitSet, CachedPages>(16, 0.75F, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BitSet, CachedPages> eldest) {
+            return this.size() > HelpCommand.MAX_CACHED_PAGES;
+        }
+
+    };
+    /** The parent's {@link VisibilityIndex} that {@link #pages} are keyed by */
+    private VisibilityIndex index;
     /** The number of commands to show per page */
     private int factor = 5;
+    /** The page of help to display */
+    private final Argument<Integer> page = this.getArguments().optional("page-number",
+            ArgumentParsers.intRange(1, Integer.MAX_VALUE), 1);
 
     /**
      * {@link HelpCommand} constructor.
@@ -68,30 +80,38 @@ public final class HelpCommand<E extends Plugin> extends CommandNode<E> {
         super(plugin);
     }
 
+    /**
+     * Parses the passed arguments and displays the help page they describe
+     *
+     * @since 0.0.1
+     * @version 0.3.1
+     *
+     * @see HelpCommand#execute(CommandSender, ParsedArguments)
+     * @param sender {@inheritDoc}
+     * @param args {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public CommandStatus execute(CommandSender sender, String... args) {
+        ParsedArguments parsed = this.getArguments().parse(sender, ArgumentView.of(args));
+        return parsed == null ? CommandStatus.BAD_ARGS : this.execute(sender, parsed);
+    }
+
     /**
      * Displays help information from all linked child {@link CommandNode} nodes
      * for the parent {@link CommandNode} relevant to this {@link HelpCommand}
      * instance
      *
-     * @since 0.0.1
-     * @version 0.1.0
+     * @since 0.3.1
+     * @version 0.3.1
      *
      * @param sender {@inheritDoc}
      * @param args {@inheritDoc}
      * @return {@inheritDoc}
      */
     @Override
-    public CommandStatus execute(CommandSender sender, String... args) {
-        if (args.length < 1) {
-            args = new String[]{"1"};
-        }
-        int select;
-        try {
-            select = Integer.parseInt(args[0]);
-        } catch (NumberFormatException ex) {
-            return CommandStatus.BAD_ARGS;
-        }
-        sender.sendMessage(this.getPages(sender).getPage(select));
+    public CommandStatus execute(CommandSender sender, ParsedArguments args) {
+        sender.sendMessage(this.getPages(sender).getPage(args.get(this.page)));
         return CommandStatus.SUCCESS;
     }
 
@@ -99,7 +119,7 @@ public final class HelpCommand<E extends Plugin> extends CommandNode<E> {
      * {@inheritDoc}
      * 
      * @since 0.1.0
-     * @version 0.2.0
+     * @version 0.3.1
      * 
      * @param sender {@inheritDoc}
      * @param args {@inheritDoc}
@@ -107,25 +127,15 @@ public final class HelpCommand<E extends Plugin> extends CommandNode<E> {
      */
     @Override
     public List<String> tabComplete(CommandSender sender, String... args) {
-        if (args.length < 1) {
-            return IntStream.range(1, this.getPages(sender).size() + 1).boxed()
-                    .map(String::valueOf).collect(Collectors.toList());
-        }
-        int size = this.getPages(sender).size();
-        int curr;
-        try {
-            curr = Integer.parseInt(args[0]);
-        } catch (NumberFormatException ex) {
-            return TabInfo.BLANK_TAB_COMPLETE;
-        }
-        if (curr > size || curr * 10 > size) {
+        if (args.length > 1) {
             return TabInfo.BLANK_TAB_COMPLETE;
         }
+        String prefix = args.length < 1 ? "" : args[0];
+        int size = this.getPages(sender).size();
         List<String> back = new ArrayList<>();
-        back.add(args[0]);
-        for (int i = curr * 10; i < size; i++) { //awful, spawns too many strings
-            String s = i + "";
-            if (s.startsWith(args[0])) {
+        for (int i = 1; i <= size; i++) {
+            String s = String.valueOf(i);
+            if (s.startsWith(prefix)) {
                 back.add(s);
             }
         }
@@ -138,18 +148,17 @@ public final class HelpCommand<E extends Plugin> extends CommandNode<E> {
      * this {@link HelpCommand}
      *
      * @since 0.1.0
-     * @version 0.2.0
+     * @version 0.3.1
      *
      * @return A new {@link Paginator} instance containing help information
      */
     private Paginator newPaginator(CommandSender sender) {
-        List<CommandNode<? extends Plugin>> cmds = new ArrayList<>(this.getParent().traverse(sender, true));
+        List<CommandNode<? extends Plugin>> cmds = this.getParent().getVisibleCommands(sender); //already sorted
         Map<String, CommandNode<? extends Plugin>> aliases = new HashMap<>();
         cmds.forEach(c -> aliases.putAll(c.getAliases()));
-        Collections.sort(cmds);
         String usage;
         String title = InternalLang.COMMAND_HELP_TITLEFORMAT.formatAndColor(
-                filterUsage(this.getParent().getUsage()));
+                this.getParent().getFilteredUsage());
         List<String> out = cmds.stream().map(this::toHelpInfo).collect(Collectors.toList());
         if (!aliases.isEmpty()) {
             int blanks = this.getItemsPerPage() - (cmds.size() % this.getItemsPerPage());
@@ -161,7 +170,7 @@ public final class HelpCommand<E extends Plugin> extends CommandNode<E> {
             Collections.sort(aliasInfo);
             out.addAll(aliasInfo);
         }
-        return new Paginator(title, this.factor, out);
+        return Paginator.view(title, this.factor, out);
     }
 
 
@@ -199,13 +208,15 @@ public final class HelpCommand<E extends Plugin> extends CommandNode<E> {
      * forcefully refresh the {@link Paginator} cache
      *
      * @since 0.1.0
-     * @version 0.2.0
+     * @version 0.3.1
      *
      * @param factor The number of commands per page
      */
     public void setItemsPerPage(int factor) {
         this.factor = factor;
-        this.pages.values().forEach(Cache::forceRefresh);
+        synchronized (this.pages) {
+            this.pages.clear();
+        }
     }
 
     /**
@@ -220,19 +231,6 @@ public final class HelpCommand<E extends Plugin> extends CommandNode<E> {
         return this.factor;
     }
 
-    /**
-     * {@inheritDoc}
-     *
-     * @since 0.0.1
-     * @version 0.0.1
-     *
-     * @return {@inheritDoc}
-     */
-    @Override
-    public String usage() {
-        return super.usage() + " [page-number]";
-    }
-
     /**
      * Subcommand name: "help"
      * <br><br> {@inheritDoc}
@@ -260,23 +258,47 @@ public final class HelpCommand<E extends Plugin> extends CommandNode<E> {
         return InternalLang.COMMAND_HELP_INFO;
     }
 
+    /**
+     * Returns the rendered help pages visible to a {@link CommandSender}.
+     * Senders which can see the exact same set of commands share a single
+     * {@link Paginator}, which is dropped when the command tree changes
+     *
+     * @since 0.2.0
+     * @version 0.3.1
+     *
+     * @see VisibilityIndex#getVisibleGroups(CommandSender)
+     * @param sender The {@link CommandSender} requesting help
+     * @return The relevant {@link Paginator}
+     */
     private Paginator getPages(CommandSender sender) {
-        UUID uuid = null;
-        if (sender instanceof Player) {
-            return this.pages.computeIfAbsent(uuid, uid -> new Cache<Paginator>(TimeUnit.MINUTES.toMillis(5)) {
-                @Override
-                protected void update() {
-                    this.setCurrentValue(HelpCommand.this.newPaginator(sender));
-                }
-            }).get();
-        } else {
-            return this.oddSenders.computeIfAbsent(sender.getClass(), uid -> new Cache<Paginator>(TimeUnit.MINUTES.toMillis(5)) {
-                @Override
-                protected void update() {
-                    this.setCurrentValue(HelpCommand.this.newPaginator(sender));
-                }
-            }).get();
+        synchronized (this.pages) {
+            VisibilityIndex current = this.getParent().getVisibility();
+            if (current != this.index) {
+                this.pages.clear();
+                this.index = current;
+            }
+            BitSet key = current.getVisibleGroups(sender);
+            CachedPages back = this.pages.get(key);
+            long now = System.nanoTime();
+            if (back == null || back.expires - now < 0) {
+                back = new CachedPages(this.newPaginator(sender), now + HelpCommand.PAGE_TTL);
+                this.pages.put(key, back);
+            }
+            return back.pages;
         }
     }
 
+    //A rendered Paginator and the time it expires at
+    private static final class CachedPages {
+
+        private final Paginator pages;
+        private final long expires;
+
+        private CachedPages(Paginator pages, long expires) {
+            this.pages = pages;
+            this.expires = expires;
+        }
+
+    }
+
 }
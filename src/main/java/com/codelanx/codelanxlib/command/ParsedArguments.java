@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+/**
+ * The typed result of parsing command arguments against an
+ * {@link ArgumentSchema}
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class ParsedArguments {
+
+    /** The schema these arguments were parsed against */
+    private final ArgumentSchema schema;
+    /** The parsed values, indexed by {@link Argument#getIndex()} */
+    private final Object[] values;
+    /** The number of arguments which were actually supplied */
+    private final int supplied;
+    /** The raw arguments */
+    private final ArgumentView raw;
+
+    /**
+     * Package-private constructor, instances are created by
+     * {@link ArgumentSchema#parse(org.bukkit.command.CommandSender, ArgumentView)}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param schema The schema these arguments were parsed against
+     * @param values The parsed values
+     * @param supplied The number of arguments which were supplied
+     * @param raw The raw arguments
+     */
+    ParsedArguments(ArgumentSchema schema, Object[] values, int supplied, ArgumentView raw) {
+        this.schema = schema;
+        this.values = values;
+        this.supplied = supplied;
+        this.raw = raw;
+    }
+
+    /**
+     * Returns the parsed value of the passed {@link Argument}, or its default
+     * value if it was not supplied
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param <T> The type of the argument
+     * @param arg The {@link Argument} declared in the relevant schema
+     * @return The parsed value
+     * @throws IllegalArgumentException If {@code arg} is not from this schema
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Argument<T> arg) {
+        this.verify(arg);
+        return (T) this.values[arg.getIndex()];
+    }
+
+    /**
+     * Returns whether or not the passed {@link Argument} was supplied by the
+     * command sender
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param arg The {@link Argument} declared in the relevant schema
+     * @return {@code true} if the argument was supplied
+     * @throws IllegalArgumentException If {@code arg} is not from this schema
+     */
+    public boolean has(Argument<?> arg) {
+        this.verify(arg);
+        return arg.getIndex() < this.supplied;
+    }
+
+    /**
+     * Returns the raw arguments these values were parsed from
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The raw command arguments
+     */
+    public ArgumentView getRaw() {
+        return this.raw;
+    }
+
+    //Ensures the argument belongs to the schema that was parsed
+    private void verify(Argument<?> arg) {
+        if (!this.schema.contains(arg)) {
+            throw new IllegalArgumentException("Argument '" + arg.getName() + "' is not part of this schema");
+        }
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A lock-free token bucket rate limiter, keyed by {@link CommandSender}.
+ * Players are limited by their {@link java.util.UUID}, while all other senders
+ * share a bucket per sender class (e.g. the console). Each bucket is a single
+ * atomic timestamp (the time at which it will be full again), so checking
+ * an existing bucket is constant time and does not allocate. Buckets which
+ * have refilled are dropped by a time wheel that is advanced by the checks
+ * themselves, so idle senders hold no memory. A check racing with the
+ * expiry of a full bucket may be granted against the expired bucket, which can
+ * admit a single extra use
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class RateLimiter {
+
+    /** The number of slots in the expiry wheel */
+    private static final int WHEEL_SIZE = 64;
+    /** The time span of one wheel slot, in nanoseconds */
+    private static final long WHEEL_RESOLUTION = TimeUnit.SECONDS.toNanos(1);
+    /** Updater for {@link #nextTick} */
+    private static final AtomicLongFieldUpdater<RateLimiter> NEXT_TICK
+            = AtomicLongFieldUpdater.newUpdater(RateLimiter.class, "nextTick");
+    /** Buckets by sender key */
+    private final ConcurrentHashMap<Object, Bucket> buckets = new ConcurrentHashMap<>();
+    /** Buckets by the wheel slot of their expected expiry */
+    private final Queue<Bucket>[] wheel;
+    /** The time needed to regain a single use, in nanoseconds */
+    private final long interval;
+    /** How far ahead of the current time a bucket may be drawn, in nanoseconds */
+    private final long tolerance;
+    /** The time at which the next wheel slot is due, in nanoseconds */
+    private volatile long nextTick;
+
+    /**
+     * Creates a new {@link RateLimiter} allowing {@code uses} executions per
+     * {@code period}. Up to {@code uses} executions may happen in a burst
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param uses The number of executions allowed per period
+     * @param period The length of the period
+     * @param unit The {@link TimeUnit} of {@code period}
+     * @throws IllegalArgumentException If {@code uses} or {@code period} is
+     *                                  not positive
+     */
+    @SuppressWarnings("unchecked")
+    public RateLimiter(int uses, long period, TimeUnit unit) {
+        if (uses <= 0 || period <= 0) {
+            throw new IllegalArgumentException("Uses and period must be positive");
+        }
+        this.interval = Math.max(1, unit.toNanos(period) / uses);
+        this.tolerance = this.interval * (uses - 1);
+        this.wheel = new Queue[RateLimiter.WHEEL_SIZE];
+        for (int i = 0; i < this.wheel.length; i++) {
+            this.wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.nextTick = System.nanoTime() + RateLimiter.WHEEL_RESOLUTION;
+    }
+
+    /**
+     * Attempts to take a single use for the passed {@link CommandSender}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} to take a use for
+     * @return {@code 0} if a use was taken, otherwise the time in nanoseconds
+     *         until one will be available
+     */
+    public long tryAcquire(CommandSender sender) {
+        long now = System.nanoTime();
+        if (now - this.nextTick >= 0) {
+            this.advance(now);
+        }
+        Object key = RateLimiter.keyOf(sender);
+        Bucket b = this.buckets.get(key);
+        if (b == null) {
+            b = this.buckets.computeIfAbsent(key, k -> {
+                Bucket created = new Bucket(k, now);
+                this.schedule(created);
+                return created;
+            });
+        }
+        for (;;) {
+            long tat = b.tat;
+            long start = tat - now > 0 ? tat : now;
+            long wait = start - now - this.tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (Bucket.TAT.compareAndSet(b, tat, start + this.interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the time until the passed {@link CommandSender} may execute
+     * again, without taking a use
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} to check
+     * @param unit The {@link TimeUnit} to return the time in
+     * @return The remaining wait, or {@code 0} if a use is available
+     */
+    public long getWait(CommandSender sender, TimeUnit unit) {
+        Bucket b = this.buckets.get(RateLimiter.keyOf(sender));
+        if (b == null) {
+            return 0;
+        }
+        long wait = b.tat - System.nanoTime() - this.tolerance;
+        return wait > 0 ? unit.convert(wait, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * Restores every use for the passed {@link CommandSender}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} to reset
+     */
+    public void reset(CommandSender sender) {
+        this.buckets.remove(RateLimiter.keyOf(sender));
+    }
+
+    /**
+     * Returns the number of senders currently being tracked
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of live buckets
+     */
+    public int size() {
+        return this.buckets.size();
+    }
+
+    //Places a bucket in the wheel slot of the time it will be full again
+    private void schedule(Bucket b) {
+        int slot = (int) ((b.tat / RateLimiter.WHEEL_RESOLUTION) & (RateLimiter.WHEEL_SIZE - 1));
+        this.wheel[slot].add(b);
+    }
+
+    //Expires full buckets in every due slot, only one thread handles a slot
+    private void advance(long now) {
+        for (int i = 0; i < RateLimiter.WHEEL_SIZE; i++) {
+            long tick = this.nextTick;
+            if (now - tick < 0) {
+                return;
+            }
+            if (!RateLimiter.NEXT_TICK.compareAndSet(this, tick, tick + RateLimiter.WHEEL_RESOLUTION)) {
+                continue;
+            }
+            Queue<Bucket> slot = this.wheel[(int) ((tick / RateLimiter.WHEEL_RESOLUTION) & (RateLimiter.WHEEL_SIZE - 1))];
+            for (int n = slot.size(); n > 0; n--) {
+                Bucket b = slot.poll();
+                if (b == null) {
+                    break;
+                }
+                if (b.tat - now <= 0) {
+                    this.buckets.remove(b.key, b);
+                } else {
+                    this.schedule(b);
+                }
+            }
+        }
+        //more than a full rotation behind, resynchronize
+        long tick = this.nextTick;
+        if (now - tick >= 0) {
+            RateLimiter.NEXT_TICK.compareAndSet(this, tick, now + RateLimiter.WHEEL_RESOLUTION);
+        }
+    }
+
+    //Players are keyed by UUID, anything else by its implementing class
+    private static Object keyOf(CommandSender sender) {
+        return sender instanceof Player ? ((Player) sender).getUniqueId() : sender.getClass();
+    }
+
+    //The state of a single sender, the time at which its bucket is full again
+    private static final class Bucket {
+
+        private static final AtomicLongFieldUpdater<Bucket> TAT
+                = AtomicLongFieldUpdater.newUpdater(Bucket.class, "tat");
+        private final Object key;
+        private volatile long tat;
+
+        private Bucket(Object key, long now) {
+            this.key = key;
+            this.tat = now;
+        }
+
+    }
+
+}
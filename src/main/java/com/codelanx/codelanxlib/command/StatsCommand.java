@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import com.codelanx.codelanxlib.config.Lang;
+import com.codelanx.codelanxlib.internal.InternalLang;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reports the slowest and most failing {@link CommandNode} objects in the
+ * tree of its parent, according to their {@link CommandMetrics}
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ *
+ * @param <E> The {@link Plugin} type
+ */
+public class StatsCommand<E extends Plugin> extends CommandNode<E> {
+
+    /** The number of commands listed when no amount is specified */
+    private static final int DEFAULT_LIMIT = 5;
+    /** The number of commands to list */
+    private final Argument<Integer> amount = this.getArguments().optional("amount",
+            ArgumentParsers.intRange(1, Integer.MAX_VALUE), StatsCommand.DEFAULT_LIMIT);
+
+    /**
+     * {@link StatsCommand} constructor
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin {@inheritDoc}
+     */
+    public StatsCommand(E plugin) {
+        super(plugin);
+    }
+
+    /**
+     * Parses the passed arguments and outputs the commands they describe
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see StatsCommand#execute(CommandSender, ParsedArguments)
+     * @param sender {@inheritDoc}
+     * @param args {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public CommandStatus execute(CommandSender sender, String... args) {
+        ParsedArguments parsed = this.getArguments().parse(sender, ArgumentView.of(args));
+        return parsed == null ? CommandStatus.BAD_ARGS : this.execute(sender, parsed);
+    }
+
+    /**
+     * Outputs the slowest and most failing commands in the parent's tree. An
+     * optional argument specifies how many commands to list
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender {@inheritDoc}
+     * @param args {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public CommandStatus execute(CommandSender sender, ParsedArguments args) {
+        int limit = args.get(this.amount);
+        List<CommandNode<?>> nodes = this.collectNodes();
+        List<CommandNode<?>> slowest = nodes.stream()
+                .filter(c -> c.getMetrics().getExecutions() > 0)
+                .sorted(Comparator.comparingDouble((CommandNode<?> c) -> c.getMetrics().getMeanExecutionTime(TimeUnit.NANOSECONDS)).reversed())
+                .limit(limit).collect(Collectors.toList());
+        List<CommandNode<?>> failing = nodes.stream()
+                .filter(c -> c.getMetrics().getFailures() > 0)
+                .sorted(Comparator.comparingLong((CommandNode<?> c) -> c.getMetrics().getFailures()).reversed())
+                .limit(limit).collect(Collectors.toList());
+        if (slowest.isEmpty() && failing.isEmpty()) {
+            Lang.sendMessage(sender, InternalLang.COMMAND_STATS_NONE);
+            return CommandStatus.SUCCESS;
+        }
+        if (!slowest.isEmpty()) {
+            Lang.sendMessage(sender, InternalLang.COMMAND_STATS_SLOWEST);
+            slowest.forEach(c -> {
+                CommandMetrics m = c.getMetrics();
+                Lang.sendRawMessage(sender, InternalLang.COMMAND_STATS_TIMEFORMAT,
+                        c.getFilteredUsage(), m.getExecutions(),
+                        m.getMeanExecutionTime(TimeUnit.MILLISECONDS),
+                        m.getExecutionTimePercentile(0.95, TimeUnit.MILLISECONDS),
+                        m.getMaxExecutionTime(TimeUnit.MILLISECONDS));
+            });
+        }
+        if (!failing.isEmpty()) {
+            Lang.sendMessage(sender, InternalLang.COMMAND_STATS_FAILING);
+            failing.forEach(c -> Lang.sendRawMessage(sender, InternalLang.COMMAND_STATS_FAILFORMAT,
+                    c.getFilteredUsage(), c.getMetrics().getFailures(), c.getMetrics().getInvocations()));
+        }
+        return CommandStatus.SUCCESS;
+    }
+
+    /**
+     * Collects every distinct node in the parent's tree, including aliases
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return All nodes reachable from the parent
+     */
+    private List<CommandNode<?>> collectNodes() {
+        Map<CommandNode<?>, Boolean> seen = new IdentityHashMap<>();
+        List<CommandNode<?>> back = new ArrayList<>();
+        back.add(this.getParent());
+        seen.put(this.getParent(), Boolean.TRUE);
+        for (int i = 0; i < back.size(); i++) {
+            for (CommandNode<?> child : back.get(i).getChildren()) {
+                if (seen.put(child, Boolean.TRUE) == null) {
+                    back.add(child);
+                }
+            }
+        }
+        return back;
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String... args) {
+        return TabInfo.BLANK_TAB_COMPLETE;
+    }
+
+    /**
+     * Subcommand name: "stats"
+     * <br><br> {@inheritDoc}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return "stats";
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Lang info() {
+        return InternalLang.COMMAND_STATS_INFO;
+    }
+
+}
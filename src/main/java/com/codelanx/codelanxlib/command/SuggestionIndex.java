@@ -0,0 +1,314 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A fuzzy-match index over every usage path of a command tree, used to make
+ * "did you mean" suggestions. Paths are split by their number of tokens into
+ * separate BK-trees, so a typed command is only ever compared against paths
+ * of the same length as the portion of it being matched
+ * <br><br>
+ * An index is never changed once built, and records the versions of the trees
+ * it was built from. A changed tree is indexed anew rather than edited in
+ * place, so an index may be shared freely between threads
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+final class SuggestionIndex {
+
+    /** The BK-tree roots, indexed by number of path tokens */
+    private final List<BKNode> trees = new ArrayList<>();
+    /** The versions of the trees this index was built from */
+    private final TreeStamp stamp = new TreeStamp();
+
+    //Only built through build(CommandNode)
+    private SuggestionIndex() {
+    }
+
+    /**
+     * Builds a new index over every path reachable below the passed node
+     * (including aliases)
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param root The root of the command tree
+     * @return The new {@link SuggestionIndex}
+     */
+    static SuggestionIndex build(CommandNode<?> root) {
+        SuggestionIndex back = new SuggestionIndex();
+        Map<CommandNode<?>, Boolean> expanded = new IdentityHashMap<>();
+        List<String> paths = new ArrayList<>();
+        List<CommandNode<?>> nodes = new ArrayList<>();
+        paths.add(root.getName());
+        nodes.add(root);
+        for (int i = 0; i < nodes.size(); i++) { //breadth-first, lists grow as we go
+            CommandNode<?> next = nodes.get(i);
+            back.insert(new Entry(paths.get(i), next));
+            if (expanded.put(next, Boolean.TRUE) != null) {
+                continue; //already reached through another path, e.g. an alias
+            }
+            back.stamp.track(next); //aliases may lead into another tree
+            for (Map.Entry<String, ? extends CommandNode<?>> sub : next.getSubcommands().entrySet()) {
+                paths.add(paths.get(i) + " " + sub.getKey());
+                nodes.add(sub.getValue());
+            }
+        }
+        return back;
+    }
+
+    /**
+     * Returns the versions of the trees this index was built from
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link TreeStamp} of this index
+     */
+    TreeStamp getStamp() {
+        return this.stamp;
+    }
+
+    /**
+     * Finds the indexed paths nearest to the passed typed command. Only the
+     * tokens after {@code from} are considered mistyped, and only paths longer
+     * than {@code from} tokens are candidates
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param tokens The typed command, as path tokens from the root
+     * @param from The number of leading tokens which were matched exactly
+     * @param filter Which nodes may be suggested
+     * @param limit The maximum number of suggestions
+     * @return The nearest matching paths, closest first
+     */
+    List<Entry> query(String[] tokens, int from, Predicate<CommandNode<?>> filter, int limit) {
+        if (tokens.length <= from) {
+            return Collections.emptyList();
+        }
+        List<Match> found = new ArrayList<>();
+        Distance dist = new Distance();
+        StringBuilder typed = new StringBuilder();
+        int fixed = 0;
+        for (int d = 0; d < tokens.length && d < this.trees.size(); d++) {
+            if (d > 0) {
+                typed.append(' ');
+            }
+            typed.append(tokens[d].toLowerCase());
+            if (d < from) {
+                fixed = typed.length();
+                continue;
+            }
+            BKNode tree = this.trees.get(d);
+            if (tree != null) {
+                int mistyped = typed.length() - fixed - (from > 0 ? 1 : 0);
+                int tolerance = mistyped <= 3 ? 1 : mistyped <= 7 ? 2 : 3;
+                tree.search(typed.toString(), tolerance, dist, filter, found);
+            }
+        }
+        Collections.sort(found);
+        List<Entry> back = new ArrayList<>();
+        Map<CommandNode<?>, Boolean> seen = new IdentityHashMap<>();
+        for (Match m : found) {
+            if (back.size() >= limit) {
+                break;
+            }
+            if (seen.put(m.entry.node, Boolean.TRUE) == null) {
+                back.add(m.entry);
+            }
+        }
+        return back;
+    }
+
+    //Adds an entry to the BK-tree for its token count, only while building
+    private void insert(Entry e) {
+        int depth = e.depth;
+        while (this.trees.size() <= depth) {
+            this.trees.add(null);
+        }
+        BKNode tree = this.trees.get(depth);
+        if (tree == null) {
+            this.trees.set(depth, new BKNode(e));
+        } else {
+            tree.add(e, new Distance());
+        }
+    }
+
+    /**
+     * A single indexed usage path
+     *
+     * @since 0.3.1
+     * @author 1Rogue
+     * @version 0.3.1
+     */
+    static final class Entry {
+
+        /** The path as it would be typed */
+        private final String path;
+        /** The lowercase path, used for matching */
+        private final String key;
+        /** The number of tokens in the path, minus one */
+        private final int depth;
+        /** The node the path leads to */
+        private final CommandNode<?> node;
+
+        private Entry(String path, CommandNode<?> node) {
+            this.path = path;
+            this.key = path.toLowerCase();
+            int depth = 0;
+            for (int i = 0; i < path.length(); i++) {
+                if (path.charAt(i) == ' ') {
+                    depth++;
+                }
+            }
+            this.depth = depth;
+            this.node = node;
+        }
+
+        /**
+         * Returns the path as it would be typed
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @return The space separated path
+         */
+        String getPath() {
+            return this.path;
+        }
+
+        /**
+         * Returns the node this path leads to
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @return The relevant {@link CommandNode}
+         */
+        CommandNode<?> getNode() {
+            return this.node;
+        }
+
+    }
+
+    //A candidate found while searching, ordered by distance then length
+    private static final class Match implements Comparable<Match> {
+
+        private final Entry entry;
+        private final int distance;
+
+        private Match(Entry entry, int distance) {
+            this.entry = entry;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Match o) {
+            int comp = Integer.compare(this.distance, o.distance);
+            return comp != 0 ? comp : Integer.compare(this.entry.depth, o.entry.depth);
+        }
+
+    }
+
+    //A node of a BK-tree, children are indexed by their distance to this node
+    private static final class BKNode {
+
+        private final Entry entry;
+        private BKNode[] children = new BKNode[0];
+
+        private BKNode(Entry entry) {
+            this.entry = entry;
+        }
+
+        private void add(Entry e, Distance dist) {
+            BKNode current = this;
+            for (;;) {
+                int d = dist.between(current.entry.key, e.key);
+                if (d >= current.children.length) {
+                    current.children = Arrays.copyOf(current.children, d + 1);
+                }
+                if (current.children[d] == null) {
+                    current.children[d] = new BKNode(e);
+                    return;
+                }
+                current = current.children[d];
+            }
+        }
+
+        private void search(String typed, int tolerance, Distance dist, Predicate<CommandNode<?>> filter, List<Match> found) {
+            int d = dist.between(this.entry.key, typed);
+            if (d <= tolerance && filter.test(this.entry.node)) {
+                found.add(new Match(this.entry, d));
+            }
+            int max = Math.min(d + tolerance, this.children.length - 1);
+            for (int i = Math.max(0, d - tolerance); i <= max; i++) {
+                if (this.children[i] != null) {
+                    this.children[i].search(typed, tolerance, dist, filter, found);
+                }
+            }
+        }
+
+    }
+
+    //Levenshtein distance, reusing its rows between calls
+    private static final class Distance {
+
+        private int[] prev = new int[16];
+        private int[] curr = new int[16];
+
+        private int between(String a, String b) {
+            int n = b.length();
+            if (this.prev.length <= n) {
+                this.prev = new int[n + 1];
+                this.curr = new int[n + 1];
+            }
+            int[] last = this.prev;
+            int[] row = this.curr;
+            for (int j = 0; j <= n; j++) {
+                last[j] = j;
+            }
+            for (int i = 1; i <= a.length(); i++) {
+                row[0] = i;
+                char ca = a.charAt(i - 1);
+                for (int j = 1; j <= n; j++) {
+                    int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                    row[j] = Math.min(Math.min(last[j] + 1, row[j - 1] + 1), last[j - 1] + cost);
+                }
+                int[] tmp = last;
+                last = row;
+                row = tmp;
+            }
+            return last[n];
+        }
+
+    }
+
+}
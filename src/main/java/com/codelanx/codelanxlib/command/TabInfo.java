@@ -19,6 +19,7 @@
  */
 package com.codelanx.codelanxlib.command;
 
+import com.codelanx.codelanxlib.util.PrefixIndex;
 import com.codelanx.commons.util.Lambdas;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Bukkit;
@@ -31,6 +32,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -43,7 +45,7 @@ import java.util.stream.Collectors;
  *
  * @since 0.1.0
  * @author 1Rogue
- * @version 0.1.0
+ * @version 0.3.1
  */
 public class TabInfo {
 
@@ -51,6 +53,8 @@ public class TabInfo {
     public static final List<String> BLANK_TAB_COMPLETE = Collections.unmodifiableList(new ArrayList<>());
     /** Represents a mapping of default arguments */
     private final Map<Integer, SupplierContainer> defaults = new HashMap<>();
+    /** Whether or not arguments are matched regardless of case */
+    private boolean ignoreCase = false;
 
     /**
      * Maps an argument count to a series of default argument values. Note that
@@ -72,16 +76,38 @@ public class TabInfo {
      * Maps an argument count to a specific list of default argument values.
      * Note that your first arguments (the ones which immediately proceed the
      * {@link CommandNode} itself) should be mapped at {@code argCount 0}
+     * <br><br>
+     * The values are copied into a sorted {@link PrefixIndex}, so later
+     * changes to the passed {@link List} are not reflected. For values which
+     * change over time, use one of the {@link Supplier} variants
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param argCount The number of arguments for these defaults
      * @param defaults The defaults to set
      */
     public void map(int argCount, List<String> defaults) {
         Validate.notNull(defaults);
-        this.getContainer(argCount).list = defaults;
+        this.getContainer(argCount).index = PrefixIndex.of(defaults, this.ignoreCase);
+    }
+
+    /**
+     * Sets whether or not incomplete arguments are matched against default
+     * values regardless of case. Defaults to {@code false}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param ignoreCase {@code true} to match regardless of case
+     */
+    public void setIgnoreCase(boolean ignoreCase) {
+        if (this.ignoreCase == ignoreCase) {
+            return;
+        }
+        this.ignoreCase = ignoreCase;
+        this.defaults.values().stream().filter(c -> c.index != null)
+                .forEach(c -> c.index = PrefixIndex.of(c.index.getAll(), ignoreCase));
     }
 
     /**
@@ -136,6 +162,54 @@ public class TabInfo {
         this.getContainer(argCount).biFunction = defaults;
     }
 
+    /**
+     * Maps an argument count to a {@link Supplier} which is evaluated
+     * asynchronously on the library's worker pool. Results are cached for
+     * the specified time to live, and the server thread is never blocked
+     * waiting for them: it receives the last cached result (or nothing) while
+     * a fresh one is computed. Callers tabbing from other threads will wait up
+     * to the specified deadline for a fresh result
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param argCount The number of arguments for these defaults
+     * @param defaults A {@link Supplier} that returns a {@link List} of strings
+     * @param ttl How long results remain cached
+     * @param deadline The longest an off-thread caller will wait for results
+     * @param unit The {@link TimeUnit} for {@code ttl} and {@code deadline}
+     */
+    public void mapAsync(int argCount, Supplier<? extends List<String>> defaults, long ttl, long deadline, TimeUnit unit) {
+        Validate.notNull(defaults);
+        Validate.notNull(unit);
+        this.getContainer(argCount).async = new AsyncCompletion(a -> defaults.get(), false, ttl, deadline, unit);
+    }
+
+    /**
+     * Maps an argument count to a {@link Function} which is evaluated
+     * asynchronously on the library's worker pool, as with
+     * {@link TabInfo#mapAsync(int, Supplier, long, long, TimeUnit)}. Results
+     * are cached per incomplete argument and shared by every
+     * {@link CommandSender}, so the function is not given the sender who
+     * tabbed
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param argCount The number of arguments for these defaults
+     * @param defaults A {@link Function} that accepts the relevant argument
+     *                 being tabbed (or null), and returns a {@link List} of
+     *                 possible string arguments to fill with
+     * @param ttl How long results remain cached
+     * @param deadline The longest an off-thread caller will wait for results
+     * @param unit The {@link TimeUnit} for {@code ttl} and {@code deadline}
+     */
+    public void mapAsync(int argCount, Function<String, ? extends List<String>> defaults, long ttl, long deadline, TimeUnit unit) {
+        Validate.notNull(defaults);
+        Validate.notNull(unit);
+        this.getContainer(argCount).async = new AsyncCompletion(defaults, true, ttl, deadline, unit);
+    }
+
     //Retrieves the internal SupplierContainer
     private SupplierContainer getContainer(int argCount) {
         SupplierContainer back = this.defaults.get(argCount);
@@ -170,9 +244,12 @@ public class TabInfo {
      * final argument is incomplete, then any default arguments which do not
      * start with the specified incomplete argument will be removed from the
      * possible results
+     * <br><br>
+     * If only static values are mapped for the argument, the returned
+     * {@link List} is a read-only view over the internal index
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param sender The {@link CommandSender} who is tabbing
      * @param args The arguments being tested
@@ -189,15 +266,8 @@ public class TabInfo {
         SupplierContainer back = this.defaults.get(get);
         if (back == null) {
             return TabInfo.BLANK_TAB_COMPLETE;
-        } else {
-            List<String> fil = new ArrayList<>(back.apply(sender, arg)); //Potentially unknown return (unmodifiable)
-            fil.removeIf(Lambdas::isNull);
-            if (arg != null) {
-                final String tempArg = arg;
-                fil.removeIf(s -> !s.startsWith(tempArg));
-            }
-            return fil;
         }
+        return back.apply(sender, arg);
     }
 
     /**
@@ -232,28 +302,43 @@ public class TabInfo {
     //Accepts anything (relevant) that will return a List<String> value
     private class SupplierContainer {
         
-        private List<String> list;
+        private PrefixIndex index;
         private Supplier<? extends List<String>> supplier;
         private Function<String, ? extends List<String>> function;
         private BiFunction<CommandSender, String, ? extends List<String>> biFunction;
+        private AsyncCompletion async;
 
         //While a bit messy, applies logic for each type
         public List<String> apply(CommandSender sender, String arg) {
-            List<String> back = new ArrayList<>();
-            if (this.list != null) {
-                back.addAll(this.list); //unmodifiable
+            List<String> fixed = this.index == null ? TabInfo.BLANK_TAB_COMPLETE : this.index.startingWith(arg);
+            if (this.supplier == null && this.function == null && this.biFunction == null && this.async == null) {
+                return fixed; //static values only, no copying needed
             }
+            List<String> back = new ArrayList<>(fixed);
             if (this.supplier != null) {
-                back.addAll(this.supplier.get());
+                this.addMatching(back, this.supplier.get(), arg);
             }
             if (this.function != null) {
-                back.addAll(this.function.apply(arg));
+                this.addMatching(back, this.function.apply(arg), arg);
             }
             if (this.biFunction != null) {
-                back.addAll(this.biFunction.apply(sender, arg));
+                this.addMatching(back, this.biFunction.apply(sender, arg), arg);
+            }
+            if (this.async != null) {
+                this.addMatching(back, this.async.get(arg), arg);
             }
             return back;
         }
 
+        //Adds any non-null values starting with the argument
+        private void addMatching(List<String> back, List<String> values, String arg) {
+            for (String s : values) {
+                if (!Lambdas.isNull(s) && (arg == null
+                        || s.regionMatches(TabInfo.this.ignoreCase, 0, arg, 0, arg.length()))) {
+                    back.add(s);
+                }
+            }
+        }
+
     }
 }
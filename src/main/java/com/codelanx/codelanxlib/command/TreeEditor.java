@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects changes to {@link CommandNode} trees so that they may be applied
+ * as one atomic mutation. Until {@link TreeEditor#apply()} returns, commands
+ * and tab completions continue to be served from the previous snapshot of
+ * each tree, so a set of related nodes (such as those of a loading minigame
+ * arena) becomes visible all at once
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ *
+ * @see CommandNode#edit()
+ */
+public final class TreeEditor {
+
+    /** The changes to apply, in order */
+    private final List<Runnable> changes = new ArrayList<>();
+    /** Every node the changes touch, so their trees are locked up front */
+    private final List<CommandNode<?>> nodes = new ArrayList<>();
+
+    /**
+     * Package-private constructor, see {@link CommandNode#edit()}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    TreeEditor() {
+    }
+
+    /**
+     * Queues adding children to a {@link CommandNode}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see CommandNode#addChild(CommandNode...)
+     * @param parent The node to add the children to
+     * @param children The children to add
+     * @return This {@link TreeEditor}
+     */
+    @SafeVarargs
+    public final TreeEditor addChild(CommandNode<?> parent, CommandNode<? extends Plugin>... children) {
+        this.changes.add(() -> parent.addChild(children));
+        this.nodes.add(parent);
+        for (CommandNode<?> child : children) {
+            this.nodes.add(child);
+        }
+        return this;
+    }
+
+    /**
+     * Queues removing a child from a {@link CommandNode}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see CommandNode#removeChild(String)
+     * @param parent The node to remove the child from
+     * @param name The name of the child to remove
+     * @return This {@link TreeEditor}
+     */
+    public TreeEditor removeChild(CommandNode<?> parent, String name) {
+        this.changes.add(() -> parent.removeChild(name));
+        this.nodes.add(parent);
+        return this;
+    }
+
+    /**
+     * Queues aliasing a {@link CommandNode} under another
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see CommandNode#alias(CommandNode, String...)
+     * @param parent The node to create the alias under
+     * @param toAlias The node to alias
+     * @param args The arguments chaining from {@code parent} to the alias
+     * @return This {@link TreeEditor}
+     */
+    public TreeEditor alias(CommandNode<?> parent, CommandNode<?> toAlias, String... args) {
+        this.changes.add(() -> parent.alias(toAlias, args));
+        this.nodes.add(parent);
+        return this;
+    }
+
+    /**
+     * Applies every queued change as a single mutation of every tree they
+     * touch, then clears the queue so this editor may be reused
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    public void apply() {
+        List<Runnable> apply = new ArrayList<>(this.changes);
+        CommandNode<?>[] touched = this.nodes.toArray(new CommandNode<?>[this.nodes.size()]);
+        this.changes.clear();
+        this.nodes.clear();
+        CommandNode.mutate(() -> apply.forEach(Runnable::run), touched);
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import java.util.Arrays;
+
+/**
+ * The versions of every command tree a snapshot was built from. Each root
+ * {@link CommandNode} versions its own tree, so a snapshot only goes stale
+ * when one of the trees it actually read from changes. A snapshot usually
+ * reads a single tree, but one which follows aliases into another plugin's
+ * tree tracks that tree as well
+ * <br><br>
+ * A tree's version is odd while it is being changed, and versions are never
+ * reused across trees. A snapshot built while every tracked version was even,
+ * and whose versions are all still current once it is built, was read from
+ * complete trees
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+final class TreeStamp {
+
+    /** The roots of the tracked trees */
+    private CommandNode<?>[] roots = new CommandNode<?>[1];
+    /** The version of each tracked tree when first reached */
+    private long[] versions = new long[1];
+    /** The number of tracked trees */
+    private int size = 0;
+
+    /**
+     * Tracks the tree of the passed node, if not already tracked. This must
+     * be called before anything of the node is read
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param node A {@link CommandNode} about to be read
+     */
+    void track(CommandNode<?> node) {
+        CommandNode<?> root = node.getRoot();
+        for (int i = 0; i < this.size; i++) {
+            if (this.roots[i] == root) {
+                return;
+            }
+        }
+        if (this.size == this.roots.length) {
+            this.roots = Arrays.copyOf(this.roots, this.size * 2);
+            this.versions = Arrays.copyOf(this.versions, this.size * 2);
+        }
+        this.versions[this.size] = root.getTreeVersion();
+        this.roots[this.size++] = root;
+    }
+
+    /**
+     * Returns whether no tracked tree has changed since it was first reached
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if the snapshot is up to date
+     */
+    boolean isCurrent() {
+        for (int i = 0; i < this.size; i++) {
+            if (this.roots[i].getTreeVersion() != this.versions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether every tracked tree was complete, and is still unchanged,
+     * meaning the snapshot may be published
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if the snapshot was read from complete trees
+     */
+    boolean isPublishable() {
+        for (int i = 0; i < this.size; i++) {
+            if ((this.versions[i] & 1) != 0) {
+                return false;
+            }
+        }
+        return this.isCurrent();
+    }
+
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.command;
+
+import com.codelanx.codelanxlib.permission.Permissions;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ProxiedCommandSender;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the executable {@link CommandNode} objects beneath a
+ * node, grouped by everything a sender must satisfy to reach them. A node's
+ * requirements are those of every node on the path down to it: their
+ * permissions, their sender restrictions, and whether they disallow proxied
+ * senders. Working out what a sender may see then means checking each
+ * distinct permission and restriction once, and OR-ing together the node sets
+ * of every group the sender satisfies, rather than walking the tree
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+final class VisibilityIndex {
+
+    /** Every indexed node, sorted by usage */
+    private final List<CommandNode<? extends Plugin>> nodes;
+    /** The position of each node within {@link #nodes} */
+    private final Map<CommandNode<?>, Integer> positions;
+    /** Every distinct permission required within the tree */
+    private final Permissions[] perms;
+    /** Every distinct restriction used within the tree */
+    private final CommandStatus[] restrictions;
+    /** The distinct sets of requirements nodes are grouped by */
+    private final Group[] groups;
+    /** The versions of the trees this index was built from */
+    private final TreeStamp stamp = new TreeStamp();
+
+    /**
+     * Builds an index of the executable nodes beneath the passed node. The
+     * passed node is included itself if executable, with no requirements
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param origin The node to index beneath
+     */
+    VisibilityIndex(CommandNode<? extends Plugin> origin) {
+        this.stamp.track(origin); //aliases are skipped, so only this tree is read
+        List<Permissions> perms = new ArrayList<>();
+        List<CommandStatus> restrictions = new ArrayList<>();
+        Map<Key, List<CommandNode<? extends Plugin>>> grouped = new HashMap<>();
+        Map<CommandNode<?>, Key> keys = new IdentityHashMap<>();
+        List<CommandNode<? extends Plugin>> queue = new ArrayList<>();
+        keys.put(origin, new Key(new BitSet(), 0, false));
+        queue.add(origin);
+        for (int i = 0; i < queue.size(); i++) { //breadth-first, queue grows as we go
+            CommandNode<? extends Plugin> node = queue.get(i);
+            Key key = keys.get(node);
+            if (node.isExecutable()) {
+                grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+            }
+            for (CommandNode<? extends Plugin> child : node.getChildren()) {
+                if (child.getParent() != node || child.getClass() == HelpCommand.class || keys.containsKey(child)) {
+                    continue; //aliases are reached through their real parent
+                }
+                BitSet required = (BitSet) key.perms.clone();
+                for (Permissions p : child.getPermissions()) {
+                    int index = perms.indexOf(p);
+                    if (index < 0) {
+                        index = perms.size();
+                        perms.add(p);
+                    }
+                    required.set(index);
+                }
+                int mask = key.restrictions;
+                if (child.getRestriction() != null) {
+                    int index = restrictions.indexOf(child.getRestriction());
+                    if (index < 0) {
+                        index = restrictions.size();
+                        restrictions.add(child.getRestriction());
+                    }
+                    mask |= 1 << index;
+                }
+                keys.put(child, new Key(required, mask, key.noProxies || !child.allowsProxies()));
+                queue.add(child);
+            }
+        }
+        List<CommandNode<? extends Plugin>> all = new ArrayList<>();
+        grouped.values().forEach(all::addAll);
+        Collections.sort(all);
+        this.nodes = Collections.unmodifiableList(all);
+        this.positions = new IdentityHashMap<>();
+        for (int i = 0; i < all.size(); i++) {
+            this.positions.put(all.get(i), i);
+        }
+        this.perms = perms.toArray(new Permissions[perms.size()]);
+        this.restrictions = restrictions.toArray(new CommandStatus[restrictions.size()]);
+        this.groups = new Group[grouped.size()];
+        int g = 0;
+        for (Map.Entry<Key, List<CommandNode<? extends Plugin>>> ent : grouped.entrySet()) {
+            BitSet members = new BitSet(all.size());
+            ent.getValue().forEach(c -> members.set(this.positions.get(c)));
+            this.groups[g++] = new Group(ent.getKey(), members);
+        }
+    }
+
+    /**
+     * Returns which groups of this index are visible to a sender. Two senders
+     * with equal results will always see the same commands
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} to check
+     * @return A {@link BitSet} of the visible groups
+     */
+    BitSet getVisibleGroups(CommandSender sender) {
+        BitSet granted = new BitSet(this.perms.length);
+        for (int i = 0; i < this.perms.length; i++) {
+            if (this.perms[i].has(sender)) {
+                granted.set(i);
+            }
+        }
+        int satisfied = 0;
+        for (int i = 0; i < this.restrictions.length; i++) {
+            if (this.restrictions[i].verifySender(sender)) {
+                satisfied |= 1 << i;
+            }
+        }
+        boolean proxied = sender instanceof ProxiedCommandSender;
+        BitSet back = new BitSet(this.groups.length);
+        for (int i = 0; i < this.groups.length; i++) {
+            if (this.groups[i].isVisible(granted, satisfied, proxied)) {
+                back.set(i);
+            }
+        }
+        return back;
+    }
+
+    /**
+     * Returns the positions of every node visible to a sender
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} to check
+     * @return A {@link BitSet} of positions within {@link #getAll()}
+     */
+    BitSet getVisible(CommandSender sender) {
+        BitSet groups = this.getVisibleGroups(sender);
+        BitSet back = new BitSet(this.nodes.size());
+        for (int i = groups.nextSetBit(0); i >= 0; i = groups.nextSetBit(i + 1)) {
+            back.or(this.groups[i].members);
+        }
+        return back;
+    }
+
+    /**
+     * Returns every node visible to a sender, sorted by usage
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sender The {@link CommandSender} to check
+     * @return A new {@link List} of the visible nodes
+     */
+    List<CommandNode<? extends Plugin>> getVisibleNodes(CommandSender sender) {
+        BitSet visible = this.getVisible(sender);
+        List<CommandNode<? extends Plugin>> back = new ArrayList<>(visible.cardinality());
+        for (int i = visible.nextSetBit(0); i >= 0; i = visible.nextSetBit(i + 1)) {
+            back.add(this.nodes.get(i));
+        }
+        return back;
+    }
+
+    /**
+     * Returns the position of a node within {@link #getAll()}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param node The {@link CommandNode} to find
+     * @return The node's position, or {@code -1} if it is not indexed
+     */
+    int indexOf(CommandNode<?> node) {
+        Integer back = this.positions.get(node);
+        return back == null ? -1 : back;
+    }
+
+    /**
+     * Returns every indexed node, sorted by usage
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An unmodifiable {@link List} of the indexed nodes
+     */
+    List<CommandNode<? extends Plugin>> getAll() {
+        return this.nodes;
+    }
+
+    /**
+     * Returns the versions of the trees this index was built from
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link TreeStamp} of this index
+     */
+    TreeStamp getStamp() {
+        return this.stamp;
+    }
+
+    //The accumulated requirements of a path, used to group nodes
+    private static final class Key {
+
+        private final BitSet perms;
+        private final int restrictions;
+        private final boolean noProxies;
+
+        private Key(BitSet perms, int restrictions, boolean noProxies) {
+            this.perms = perms;
+            this.restrictions = restrictions;
+            this.noProxies = noProxies;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return this.restrictions == k.restrictions && this.noProxies == k.noProxies && this.perms.equals(k.perms);
+        }
+
+        @Override
+        public int hashCode() {
+            return (this.perms.hashCode() * 31 + this.restrictions) * 31 + (this.noProxies ? 1 : 0);
+        }
+
+    }
+
+    //A set of nodes sharing the same requirements
+    private static final class Group {
+
+        private final int[] perms;
+        private final int restrictions;
+        private final boolean noProxies;
+        private final BitSet members;
+
+        private Group(Key key, BitSet members) {
+            this.perms = key.perms.stream().toArray();
+            this.restrictions = key.restrictions;
+            this.noProxies = key.noProxies;
+            this.members = members;
+        }
+
+        private boolean isVisible(BitSet granted, int satisfied, boolean proxied) {
+            if ((this.noProxies && proxied) || (this.restrictions & ~satisfied) != 0) {
+                return false;
+            }
+            for (int p : this.perms) {
+                if (!granted.get(p)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * A bounded cache of player balances for a {@link CEconomy}, dropping the
+ * least recently used balance once full. Balances are loaded on first read,
+ * written through from the responses of transactions and from every change
+ * made through {@link VaultProxy} at the time it is made, and dropped when the
+ * player leaves
+ * <br><br>
+ * A balance read from the economy is only stored if nothing was dropped
+ * while it was being read, so a change made during a slow read is never
+ * overwritten by the outdated balance
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+final class BalanceCache {
+
+    /** The default maximum number of cached balances */
+    static final int DEFAULT_SIZE = 512;
+    /** Every live cache, so that players can be evicted when they leave */
+    private static final Set<BalanceCache> CACHES = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+    /** Cached balances in LRU order, guarded by this cache */
+    private final Map<UUID, Double> balances;
+    /** Incremented whenever a balance is dropped, guarded by this cache */
+    private long epoch = 0;
+
+    /**
+     * Constructor. Creates an empty cache
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param maxSize The maximum number of balances to cache
+     */
+    BalanceCache(int maxSize) {
+        this.balances = new LinkedHashMap<UUID, Double>(16, 0.75F, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Double> eldest) {
+                return this.size() > maxSize;
+            }
+
+        };
+        BalanceCache.CACHES.add(this);
+    }
+
+    /**
+     * Returns a cached balance
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @return The cached balance, or {@code null} if not cached
+     */
+    synchronized Double get(UUID id) {
+        return this.balances.get(id);
+    }
+
+    /**
+     * Returns a stamp to take before reading a balance from the economy, to
+     * pass to {@link BalanceCache#load(UUID, double, long)} afterwards
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The current stamp
+     */
+    synchronized long stamp() {
+        return this.epoch;
+    }
+
+    /**
+     * Caches a balance read from the economy, unless a balance was dropped
+     * since the passed stamp was taken
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @param balance The balance that was read
+     * @param stamp The value of {@link BalanceCache#stamp()} before reading
+     */
+    synchronized void load(UUID id, double balance, long stamp) {
+        if (stamp == this.epoch) {
+            this.balances.put(id, balance);
+        }
+    }
+
+    /**
+     * Caches the balance reported by a completed transaction. Any balance
+     * still being read from the economy is outdated by this one, and will
+     * not be stored
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @param balance The new balance
+     */
+    synchronized void update(UUID id, double balance) {
+        this.epoch++;
+        this.balances.put(id, balance);
+    }
+
+    /**
+     * Drops a cached balance
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     */
+    synchronized void invalidate(UUID id) {
+        this.epoch++;
+        this.balances.remove(id);
+    }
+
+    /**
+     * Drops every cached balance
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    synchronized void clear() {
+        this.epoch++;
+        this.balances.clear();
+    }
+
+    /**
+     * Drops a player's balance from every cache
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     */
+    static void evict(UUID id) {
+        synchronized (BalanceCache.CACHES) {
+            BalanceCache.CACHES.forEach(c -> c.invalidate(id));
+        }
+    }
+
+}
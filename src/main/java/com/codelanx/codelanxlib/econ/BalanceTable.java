@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A map of player {@link UUID} to balance, in fixed-point minor units, backed
+ * by primitive open-addressing tables. Players are spread over a fixed number
+ * of stripes, each its own table, so that growing one stripe never stalls
+ * the others
+ * <br><br>
+ * Reads and balance updates never lock: a balance is changed with a single
+ * compare-and-set of its slot. Only adding a player takes its stripe's lock.
+ * When a stripe grows, each slot is atomically marked as moved while it is
+ * copied, and anything that finds a moved slot waits for the larger table to
+ * be published and retries there, so no update made during a resize is lost.
+ * Players are never removed
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+final class BalanceTable {
+
+    /** Returned when a player has no balance, or an update is refused */
+    static final long NONE = Long.MIN_VALUE;
+    /** Marks a slot which has been copied to a larger table */
+    private static final long MOVED = Long.MIN_VALUE + 1;
+    /** The smallest balance a slot can hold */
+    private static final long MIN_BALANCE = Long.MIN_VALUE + 2;
+    /** The number of stripes, a power of two */
+    private static final int STRIPES = 32;
+    /** The initial capacity of each stripe, a power of two */
+    private static final int INITIAL_CAPACITY = 64;
+    /** The tables of each stripe */
+    private final Stripe[] stripes = new Stripe[BalanceTable.STRIPES];
+
+    /**
+     * Constructor. Creates an empty table
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    BalanceTable() {
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns a player's balance
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @return The balance, or {@link #NONE} if the player has none
+     */
+    long get(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int hash = BalanceTable.hash(msb, lsb);
+        Stripe s = this.stripes[hash & (BalanceTable.STRIPES - 1)];
+        for (Table t = s.table;;) {
+            int i = t.find(msb, lsb, hash);
+            if (i < 0) {
+                return BalanceTable.NONE;
+            }
+            long v = t.values.get(i);
+            if (v != BalanceTable.MOVED) {
+                return v;
+            }
+            t = s.next(t);
+        }
+    }
+
+    /**
+     * Adds a player with a starting balance, if they have none
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @param balance The starting balance
+     * @return {@code true} if the player was added
+     */
+    boolean create(UUID id, long balance) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int hash = BalanceTable.hash(msb, lsb);
+        return this.stripes[hash & (BalanceTable.STRIPES - 1)].insert(msb, lsb, hash, Math.max(balance, BalanceTable.MIN_BALANCE));
+    }
+
+    /**
+     * Sets a player's balance, adding them if they have none
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @param balance The new balance
+     */
+    void set(UUID id, long balance) {
+        long bal = Math.max(balance, BalanceTable.MIN_BALANCE);
+        while (this.add(id, 0, BalanceTable.MIN_BALANCE, bal) == BalanceTable.NONE) {
+            this.create(id, bal);
+        }
+    }
+
+    /**
+     * Changes a player's balance, unless that would take it below a floor
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @param delta The amount to add, negative to take away
+     * @param floor The lowest balance the player may be left with
+     * @return The new balance, or {@link #NONE} if the player has no balance,
+     *         the balance would fall below the floor or overflow
+     */
+    long add(UUID id, long delta, long floor) {
+        return this.add(id, delta, floor, BalanceTable.NONE);
+    }
+
+    /**
+     * Returns the number of players with a balance
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of players
+     */
+    int size() {
+        int back = 0;
+        for (Stripe s : this.stripes) {
+            back += s.table.size;
+        }
+        return back;
+    }
+
+    /**
+     * Passes every player and balance to a consumer. Each balance is read
+     * atomically, but the table as a whole is not locked while being read
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param consumer Receives each player's {@link UUID} halves and balance
+     */
+    void forEach(EntryConsumer consumer) {
+        for (Stripe s : this.stripes) {
+            Table t = s.table;
+            for (int i = 0; i < t.capacity; i++) {
+                long v = t.values.get(i);
+                if (v == BalanceTable.NONE) {
+                    continue;
+                }
+                long msb = t.msb[i];
+                long lsb = t.lsb[i];
+                for (Table cur = t; v == BalanceTable.MOVED;) { //resized while reading
+                    cur = s.next(cur);
+                    int j = cur.find(msb, lsb, BalanceTable.hash(msb, lsb));
+                    v = cur.values.get(j);
+                }
+                consumer.accept(msb, lsb, v);
+            }
+        }
+    }
+
+    //Applies a change through compare-and-set, or sets the balance if replace is not NONE
+    private long add(UUID id, long delta, long floor, long replace) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int hash = BalanceTable.hash(msb, lsb);
+        Stripe s = this.stripes[hash & (BalanceTable.STRIPES - 1)];
+        for (Table t = s.table;;) {
+            int i = t.find(msb, lsb, hash);
+            if (i < 0) {
+                return BalanceTable.NONE;
+            }
+            long v = t.values.get(i);
+            if (v == BalanceTable.MOVED) {
+                t = s.next(t);
+                continue;
+            }
+            long next;
+            if (replace != BalanceTable.NONE) {
+                next = replace;
+            } else {
+                try {
+                    next = Math.addExact(v, delta);
+                } catch (ArithmeticException ex) {
+                    return BalanceTable.NONE;
+                }
+                if (next < floor || next < BalanceTable.MIN_BALANCE) {
+                    return BalanceTable.NONE;
+                }
+            }
+            if (t.values.compareAndSet(i, v, next)) {
+                return next;
+            }
+        }
+    }
+
+    //Spreads the bits of a UUID, the low bits pick the stripe and the rest the slot
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Receives the entries of a {@link BalanceTable}
+     *
+     * @since 0.3.1
+     * @author 1Rogue
+     * @version 0.3.1
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+
+        /**
+         * Receives a single entry
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @param msb The most significant bits of the player's {@link UUID}
+         * @param lsb The least significant bits of the player's {@link UUID}
+         * @param balance The player's balance
+         */
+        void accept(long msb, long lsb, long balance);
+
+    }
+
+    //A stripe's current table, and the lock for adding to it
+    private static final class Stripe {
+
+        private volatile Table table = new Table(BalanceTable.INITIAL_CAPACITY);
+
+        //Returns the table which replaced the passed one, waiting for it to be published
+        private Table next(Table old) {
+            Table t;
+            while ((t = this.table) == old) {
+                Thread.yield();
+            }
+            return t;
+        }
+
+        private synchronized boolean insert(long msb, long lsb, int hash, long balance) {
+            Table t = this.table;
+            if (t.find(msb, lsb, hash) >= 0) {
+                return false;
+            }
+            if ((t.size + 1) * 4L > t.capacity * 3L) {
+                t = this.grow(t);
+            }
+            t.put(msb, lsb, hash, balance);
+            return true;
+        }
+
+        //Copies every slot into a table twice the size, marking each as moved
+        private Table grow(Table old) {
+            Table next = new Table(old.capacity << 1);
+            for (int i = 0; i < old.capacity; i++) {
+                long v = old.values.get(i);
+                while (v != BalanceTable.NONE && !old.values.compareAndSet(i, v, BalanceTable.MOVED)) {
+                    v = old.values.get(i);
+                }
+                if (v != BalanceTable.NONE) {
+                    next.put(old.msb[i], old.lsb[i], BalanceTable.hash(old.msb[i], old.lsb[i]), v);
+                }
+            }
+            this.table = next;
+            return next;
+        }
+
+    }
+
+    //A single open-addressing table with linear probing
+    private static final class Table {
+
+        private final int capacity;
+        private final long[] msb;
+        private final long[] lsb;
+        private final AtomicLongArray values; //published after the key, NONE while empty
+        private volatile int size; //only written under the stripe lock
+
+        private Table(int capacity) {
+            this.capacity = capacity;
+            this.msb = new long[capacity];
+            this.lsb = new long[capacity];
+            this.values = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                this.values.set(i, BalanceTable.NONE);
+            }
+        }
+
+        //Returns the slot holding a key, or -1 if absent
+        private int find(long msb, long lsb, int hash) {
+            int mask = this.capacity - 1;
+            for (int i = (hash >>> 5) & mask;; i = (i + 1) & mask) {
+                if (this.values.get(i) == BalanceTable.NONE) {
+                    return -1; //keys are never removed, so the probe ends here
+                }
+                if (this.msb[i] == msb && this.lsb[i] == lsb) {
+                    return i;
+                }
+            }
+        }
+
+        //Writes a new key, publishing it with its value, must hold the stripe lock
+        private void put(long msb, long lsb, int hash, long balance) {
+            int mask = this.capacity - 1;
+            int i = (hash >>> 5) & mask;
+            while (this.values.get(i) != BalanceTable.NONE) {
+                i = (i + 1) & mask;
+            }
+            this.msb[i] = msb;
+            this.lsb[i] = lsb;
+            this.values.set(i, balance);
+            this.size++;
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Represents the per-player results of a bulk {@link CEconomy} operation, in
+ * the order the players were passed
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ *
+ * @see CEconomy#payAll(Map)
+ * @see CEconomy#chargeAll(Map)
+ * @see CEconomy#transfer(OfflinePlayer, OfflinePlayer, double)
+ */
+public final class BulkResult {
+
+    /** The result for each player */
+    private final Map<UUID, ChargeStatus> results;
+    /** The sum of every successful amount */
+    private final double total;
+
+    /**
+     * Constructor. Assigns the results and sums the successful amounts
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param results The {@link ChargeStatus} of each player, in order
+     */
+    BulkResult(LinkedHashMap<UUID, ChargeStatus> results) {
+        this.results = Collections.unmodifiableMap(results);
+        this.total = results.values().stream().filter(ChargeStatus::getStatus).mapToDouble(ChargeStatus::getAmount).sum();
+    }
+
+    /**
+     * Returns the result for a single player
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param player The {@link UUID} of the player
+     * @return The player's {@link ChargeStatus}, or {@code null} if the player
+     *         was not part of the operation
+     */
+    public ChargeStatus get(UUID player) {
+        return this.results.get(player);
+    }
+
+    /**
+     * Returns the result for a single player
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param player The {@link OfflinePlayer}
+     * @return The player's {@link ChargeStatus}, or {@code null} if the player
+     *         was not part of the operation
+     */
+    public ChargeStatus get(OfflinePlayer player) {
+        return this.get(player.getUniqueId());
+    }
+
+    /**
+     * Returns the result for every player, in the order they were passed.
+     * Each {@link ChargeStatus} holds the amount after taxes or bonuses
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return An unmodifiable map of player {@link UUID} to result
+     */
+    public Map<UUID, ChargeStatus> getResults() {
+        return this.results;
+    }
+
+    /**
+     * Returns the players whose part of the operation failed
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link UUID} of each failed player, in order
+     */
+    public Set<UUID> getFailed() {
+        Set<UUID> back = new LinkedHashSet<>();
+        this.results.forEach((k, v) -> {
+            if (!v.getStatus()) {
+                back.add(k);
+            }
+        });
+        return back;
+    }
+
+    /**
+     * Returns whether every player's part of the operation succeeded
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if nothing failed
+     */
+    public boolean isSuccessful() {
+        return this.results.values().stream().allMatch(ChargeStatus::getStatus);
+    }
+
+    /**
+     * Returns the sum of every successful amount, after taxes or bonuses
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The total amount moved
+     */
+    public double getTotal() {
+        return this.total;
+    }
+
+}
@@ -24,44 +24,62 @@ import com.codelanx.commons.config.ConfigFile;
 import com.codelanx.commons.config.LangFile;
 import com.codelanx.commons.util.exception.Exceptions;
 import com.codelanx.codelanxlib.internal.InternalLang;
+import com.codelanx.commons.logging.Debugger;
 import net.milkbowl.vault.economy.Economy;
 import net.milkbowl.vault.economy.EconomyResponse;
+import org.apache.commons.lang.Validate;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
-import java.util.HashSet;
-import java.util.Observable;
-import java.util.Observer;
-import java.util.Set;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 /**
- * Represents an observable façade class for Vault's {@link Economy} object
+ * Represents an observable façade class for Vault's {@link Economy} object.
+ * Changes in balance are delivered to {@link EconomyObserver} objects
  *
  * @since 0.0.1
  * @author 1Rogue
- * @version 0.1.0
+ * @version 0.3.1
  */
-public class CEconomy extends Observable {
+public class CEconomy {
 
     /** The {@link LangFile} format to use for output */
     protected final Lang format;
+    /** The {@link Plugin} that instantiated this class */
+    private final Plugin plugin;
+    /** Runs asynchronous transactions, or {@code null} if not yet used */
+    private volatile TransactionEngine transactions;
+    /** Cached balances of online players */
+    private final BalanceCache balances = new BalanceCache(BalanceCache.DEFAULT_SIZE);
     /** The underlying {@link Economy} object, usually a proxy */
     private Economy econ;
-    /** Holds {@link EconomyObserver} objects for java-8 style observations */
-    private Set<EconomyObserver> observers = new HashSet<>();
+    /** Delivers changes to registered {@link EconomyObserver} objects */
+    private final EconomyBus bus = new EconomyBus();
+    /** Records transactions, or {@code null} if not journaled */
+    private volatile TransactionJournal journal;
+    /** Active holds on players' balances */
+    private final HoldLedger holds = new HoldLedger();
 
     /**
      * Sets the format string for this object to use for output
      *
      * @since 0.0.1
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param plugin The {@link Plugin} that instantiated this class
      */
     public CEconomy(Plugin plugin) {
         this.format = Lang.getFormat(plugin);
+        this.plugin = plugin;
     }
 
     /**
@@ -84,10 +102,12 @@ public class CEconomy extends Observable {
 
     /**
      * Returns whether or not a specific {@link OfflinePlayer} can be charged an
-     * amount
+     * amount, multiplied by {@link CEconomy#taxRate()} as
+     * {@link CEconomy#charge(OfflinePlayer, double)} would, on top of what
+     * their active {@link Hold} objects reserve
      *
      * @since 0.0.1
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param p The {@link OfflinePlayer} to check if they can be charged
      * @param cost The amount to charge
@@ -100,14 +120,14 @@ public class CEconomy extends Observable {
         if (!this.isEnabled()) {
             return new ChargeStatus(true, 0);
         }
-        cost *= this.bonus();
+        cost *= this.tax();
         if (cost < 0) {
             if (p.isOnline()) {
                 Lang.sendMessage(p.getPlayer(), this.format, InternalLang.ECONOMY_FAILED);
             }
             return new ChargeStatus(false, -1);
         }
-        return new ChargeStatus(this.getEconomy().has(p, cost), cost);
+        return new ChargeStatus(this.has(p, cost, this.holds.getReserved(p.getUniqueId())), cost);
     }
 
     /**
@@ -126,10 +146,11 @@ public class CEconomy extends Observable {
     }
 
     /**
-     * Takes money away from the {@link OfflinePlayer}
+     * Takes money away from the {@link OfflinePlayer}. Money reserved by the
+     * player's active {@link Hold} objects cannot be taken
      *
      * @since 0.0.1
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param p The {@link OfflinePlayer} to take money from
      * @param cost The amount of money to take
@@ -146,19 +167,182 @@ public class CEconomy extends Observable {
             }
             return false;
         }
-        cost *= this.tax();
-        EconomyResponse r = this.getEconomy().withdrawPlayer(p, cost);
-        boolean bad = r.type == EconomyResponse.ResponseType.FAILURE;
+        double rate = this.tax();
+        if (!this.coversHolds(p, cost * rate)) {
+            if (p.isOnline()) {
+                Lang.sendMessage(p.getPlayer(), this.format, InternalLang.ECONOMY_INSUFF, cost * rate);
+            }
+            return false;
+        }
+        return this.withdraw(p, cost, rate);
+    }
+
+    /**
+     * Reserves money from the {@link OfflinePlayer} for 30 seconds
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see CEconomy#hold(OfflinePlayer, double, long, TimeUnit)
+     * @param p The {@link OfflinePlayer} to reserve money from
+     * @param cost The amount of money to reserve
+     * @return The {@link Hold}
+     */
+    public Hold hold(OfflinePlayer p, double cost) {
+        return this.hold(p, cost, 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Reserves money from the {@link OfflinePlayer}, to be taken later with
+     * {@link Hold#commit()} in a single call to the economy. The hold is
+     * granted if the player's balance, less what their other active holds
+     * reserve, covers the cost multiplied by {@link CEconomy#taxRate()}.
+     * Reserving reads the balance from this object's cache when it can, so
+     * usually makes no call to the economy at all
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link OfflinePlayer} to reserve money from
+     * @param cost The amount of money to reserve
+     * @param time How long the hold lasts before it lapses
+     * @param unit The {@link TimeUnit} of the time
+     * @return The {@link Hold}, whose {@link Hold#getStatus()} is whether the
+     *         money was reserved. If {@link CEconomy#isEnabled()} returns
+     *         {@code false}, this is a granted hold of 0 which never calls
+     *         the economy
+     */
+    public Hold hold(OfflinePlayer p, double cost, long time, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        if (!this.isEnabled()) {
+            return new Hold(this, p, true, 0, 1, deadline);
+        }
+        if (cost < 0) {
+            if (p.isOnline()) {
+                Lang.sendMessage(p.getPlayer(), this.format, InternalLang.ECONOMY_FAILED);
+            }
+            return new Hold(this, p, false, -1, 1, deadline);
+        }
+        double rate = this.tax();
+        Hold hold = new Hold(this, p, true, cost, rate, deadline);
+        if (this.holds.reserve(p.getUniqueId(), hold, this.getBalance(p))) {
+            return hold;
+        }
+        return new Hold(this, p, false, cost, rate, deadline);
+    }
+
+    /**
+     * Returns the total reserved from a player by active {@link Hold}
+     * objects
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link OfflinePlayer} to check
+     * @return The reserved amount, after taxes
+     */
+    public double getReserved(OfflinePlayer p) {
+        return this.holds.getReserved(p.getUniqueId());
+    }
+
+    /**
+     * Returns whether a player could be charged an amount without dipping
+     * into what their active {@link Hold} objects reserve. Players with no
+     * holds are always covered, leaving the economy to decide
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link OfflinePlayer} to be charged
+     * @param total The amount to be charged, after taxes
+     * @return {@code false} if the charge would take reserved money
+     */
+    final boolean coversHolds(OfflinePlayer p, double total) {
+        double reserved = this.holds.getReserved(p.getUniqueId());
+        return reserved <= 0 || this.has(p, total, reserved);
+    }
+
+    //Whether the player has the total on top of the reserved amount, asking the economy unless the cache covers it
+    private boolean has(OfflinePlayer p, double total, double reserved) {
+        Double cached = this.getCachedBalance(p);
+        return (cached != null && cached - reserved >= total) || this.getEconomy().has(p, total + reserved);
+    }
+
+    /**
+     * Takes the money reserved by a {@link Hold}, called once it is marked
+     * as committed. This is a single call to the economy, whose response
+     * carries the new balance; a failed commit changes nothing, so is not
+     * announced
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param hold The {@link Hold} being committed
+     * @return A {@link ChargeStatus} of whether the money was taken
+     */
+    final ChargeStatus commit(Hold hold) {
+        OfflinePlayer p = hold.getPlayer();
+        try {
+            if (!this.isEnabled() || hold.getAmount() == 0) {
+                return new ChargeStatus(true, hold.getAmount());
+            }
+            EconomyResponse r = this.apply(VaultProxy.unwrap(this.getEconomy()),
+                    p, JournalEntry.Operation.CHARGE, hold.getBase(), hold.getRate());
+            boolean success = CEconomy.succeeded(r);
+            if (success) {
+                this.announce(p, r.balance, -r.amount, 1);
+            } else if (p.isOnline()) {
+                Lang.sendMessage(p.getPlayer(), this.format, InternalLang.ECONOMY_INSUFF, hold.getAmount());
+            }
+            return new ChargeStatus(success, hold.getAmount());
+        } finally {
+            this.holds.remove(p.getUniqueId(), hold);
+        }
+    }
+
+    /**
+     * Drops a {@link Hold} which was released
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param hold The released {@link Hold}
+     */
+    final void release(Hold hold) {
+        this.holds.remove(hold.getPlayer().getUniqueId(), hold);
+    }
+
+    //Withdraws an amount at a rate, telling the player if it failed
+    private boolean withdraw(OfflinePlayer p, double cost, double rate) {
+        EconomyResponse r = this.apply(VaultProxy.unwrap(this.getEconomy()), p, JournalEntry.Operation.CHARGE, cost, rate);
+        boolean bad = !CEconomy.succeeded(r);
         if (bad) {
             if (p.isOnline()) {
-                Lang.sendMessage(p.getPlayer(), this.format, InternalLang.ECONOMY_INSUFF, cost);
+                Lang.sendMessage(p.getPlayer(), this.format, InternalLang.ECONOMY_INSUFF, cost * rate);
             }
         }
-        this.setChanged();
-        this.notifyObservers(new EconomyChangePacket(p, this.getBalance(p)));
+        double bal = bad ? this.getBalance(p) : r.balance; //only re-read if the response can't be trusted
+        this.announce(p, bal, bad ? 0 : -r.amount, 1);
         return !bad;
     }
 
+    /**
+     * Takes money away from the {@link OfflinePlayer} off of the main thread,
+     * batched with any other transactions made this tick
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see TransactionEngine#charge(OfflinePlayer, double)
+     * @param p The {@link OfflinePlayer} to take money from
+     * @param cost The amount of money to take
+     * @return A {@link ChargeStatus} of whether the money was taken, completed
+     *         on the main thread
+     */
+    public CompletableFuture<ChargeStatus> chargeAsync(OfflinePlayer p, double cost) {
+        return this.getTransactions().charge(p, cost);
+    }
+
     /**
      * Gives money to the {@link OfflinePlayer}
      *
@@ -178,7 +362,7 @@ public class CEconomy extends Observable {
      * Gives money to the {@link OfflinePlayer}
      *
      * @since 0.0.1
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @param p The {@link OfflinePlayer} to give money to
      * @param amount The amount of money to give
@@ -189,50 +373,308 @@ public class CEconomy extends Observable {
         if (!this.isEnabled()) {
             return true;
         }
-        amount *= this.bonus();
-        EconomyResponse r = this.getEconomy().depositPlayer(p, amount);
-        this.notifyObservers(new EconomyChangePacket(p, this.getBalance(p)));
-        return r.type != EconomyResponse.ResponseType.FAILURE;
+        EconomyResponse r = this.apply(VaultProxy.unwrap(this.getEconomy()), p, JournalEntry.Operation.PAY, amount, this.bonus());
+        boolean bad = !CEconomy.succeeded(r);
+        double bal = bad ? this.getBalance(p) : r.balance; //only re-read if the response can't be trusted
+        this.announce(p, bal, bad ? 0 : r.amount, 1);
+        return !bad;
     }
 
     /**
-     * Modified to send a Bukkit event and force notification of the change
-     * <br><br> {@inheritDoc}
+     * Gives money to the {@link OfflinePlayer} off of the main thread, batched
+     * with any other transactions made this tick
      *
-     * @since 0.0.1
-     * @version 0.1.0
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see TransactionEngine#pay(OfflinePlayer, double)
+     * @param p The {@link OfflinePlayer} to give money to
+     * @param amount The amount of money to give
+     * @return A {@link ChargeStatus} of whether the money was deposited,
+     *         completed on the main thread
+     */
+    public CompletableFuture<ChargeStatus> payAsync(OfflinePlayer p, double amount) {
+        return this.getTransactions().pay(p, amount);
+    }
+
+    /**
+     * Gives the same amount of money to every passed {@link OfflinePlayer}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see CEconomy#payAll(Map)
+     * @param players The players to give money to
+     * @param amount The amount of money to give each player
+     * @return The result for each player
+     */
+    public BulkResult payAll(Collection<? extends OfflinePlayer> players, double amount) {
+        Map<OfflinePlayer, Double> payouts = new LinkedHashMap<>();
+        players.forEach(p -> payouts.merge(p, amount, Double::sum));
+        return this.payAll(payouts);
+    }
+
+    /**
+     * Gives money to many players as one batch. Each player's payment is made
+     * with a single call to the economy, the new balances are taken from its
+     * responses, and observers are notified once per player after the whole
+     * batch is done. Amounts are multiplied by {@link CEconomy#bonusRate()}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param payouts The amount to give each player
+     * @return The result for each player, where negative or {@code null}
+     *         amounts fail with -1. If {@link CEconomy#isEnabled()} returns
+     *         {@code false}, every result is a success of 0
+     */
+    public BulkResult payAll(Map<? extends OfflinePlayer, Double> payouts) {
+        return this.bulk(payouts, JournalEntry.Operation.PAY);
+    }
+
+    /**
+     * Takes the same amount of money from every passed {@link OfflinePlayer}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see CEconomy#chargeAll(Map)
+     * @param players The players to take money from
+     * @param cost The amount of money to take from each player
+     * @return The result for each player
+     */
+    public BulkResult chargeAll(Collection<? extends OfflinePlayer> players, double cost) {
+        Map<OfflinePlayer, Double> costs = new LinkedHashMap<>();
+        players.forEach(p -> costs.merge(p, cost, Double::sum));
+        return this.chargeAll(costs);
+    }
+
+    /**
+     * Takes money from many players as one batch. Each player's charge is
+     * made with a single call to the economy, the new balances are taken from
+     * its responses, and observers are notified once per player after the
+     * whole batch is done. Players who could not pay, including those whose
+     * balance is reserved by a {@link Hold}, are told so, and costs are
+     * multiplied by {@link CEconomy#taxRate()}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param costs The amount to take from each player
+     * @return The result for each player, where negative or {@code null}
+     *         amounts fail with -1. If {@link CEconomy#isEnabled()} returns
+     *         {@code false}, every result is a success of 0
+     */
+    public BulkResult chargeAll(Map<? extends OfflinePlayer, Double> costs) {
+        return this.bulk(costs, JournalEntry.Operation.CHARGE);
+    }
+
+    /**
+     * Moves money from one player to another. The sender is charged the
+     * amount multiplied by {@link CEconomy#taxRate()}, and the receiver is
+     * given the amount itself, and money reserved by the sender's active
+     * {@link Hold} objects cannot be moved. If the receiver cannot be paid,
+     * the sender's charge is refunded, so either both sides happen or neither
+     * does
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param from The {@link OfflinePlayer} to take money from
+     * @param to The {@link OfflinePlayer} to give money to
+     * @param amount The amount of money to move
+     * @return The result for both players, which either both succeeded or
+     *         both failed. If {@link CEconomy#isEnabled()} returns
+     *         {@code false}, both results are a success of 0
+     */
+    public BulkResult transfer(OfflinePlayer from, OfflinePlayer to, double amount) {
+        LinkedHashMap<UUID, ChargeStatus> results = new LinkedHashMap<>();
+        if (!this.isEnabled()) {
+            results.put(from.getUniqueId(), new ChargeStatus(true, 0));
+            results.put(to.getUniqueId(), new ChargeStatus(true, 0));
+            return new BulkResult(results);
+        }
+        if (amount < 0 || from.getUniqueId().equals(to.getUniqueId())) {
+            if (from.isOnline()) {
+                Lang.sendMessage(from.getPlayer(), this.format, InternalLang.ECONOMY_FAILED);
+            }
+            results.put(from.getUniqueId(), new ChargeStatus(false, -1));
+            results.put(to.getUniqueId(), new ChargeStatus(false, -1));
+            return new BulkResult(results);
+        }
+        Economy e = VaultProxy.unwrap(this.getEconomy());
+        double rate = this.tax();
+        double cost = amount * rate;
+        EconomyResponse w = this.coversHolds(from, cost)
+                ? this.apply(e, from, JournalEntry.Operation.CHARGE, amount, rate)
+                : null;
+        if (!CEconomy.succeeded(w)) {
+            if (from.isOnline()) {
+                Lang.sendMessage(from.getPlayer(), this.format, InternalLang.ECONOMY_INSUFF, cost);
+            }
+            results.put(from.getUniqueId(), new ChargeStatus(false, cost));
+            results.put(to.getUniqueId(), new ChargeStatus(false, amount));
+            return new BulkResult(results);
+        }
+        EconomyResponse d = null;
+        try {
+            d = this.apply(e, to, JournalEntry.Operation.PAY, amount, 1);
+        } catch (RuntimeException ex) {
+            Debugger.error(ex, "Error paying '%s' in a transfer, refunding '%s'", to.getName(), from.getName());
+        }
+        boolean paid = CEconomy.succeeded(d);
+        if (paid) {
+            this.announce(from, w.balance, -cost, 1);
+            this.announce(to, d.balance, amount, 1);
+        } else {
+            EconomyResponse refund = null;
+            try {
+                refund = this.apply(e, from, JournalEntry.Operation.PAY, amount, rate);
+            } catch (RuntimeException ex) {
+                Debugger.error(ex, "Error refunding '%s' after a failed transfer", from.getName());
+            }
+            if (CEconomy.succeeded(refund)) {
+                this.announce(from, refund.balance, 0, 2);
+            } else {
+                Debugger.print(Level.SEVERE, "Unable to refund %.2f to '%s' after a failed transfer", cost, from.getName());
+                this.announce(from, this.getEconomy().getBalance(from), -cost, 1);
+            }
+        }
+        results.put(from.getUniqueId(), new ChargeStatus(paid, cost));
+        results.put(to.getUniqueId(), new ChargeStatus(paid, amount));
+        return new BulkResult(results);
+    }
+
+    //Makes a batch of charges or payments, announcing each player once afterwards
+    private BulkResult bulk(Map<? extends OfflinePlayer, Double> amounts, JournalEntry.Operation op) {
+        LinkedHashMap<UUID, ChargeStatus> results = new LinkedHashMap<>();
+        if (!this.isEnabled()) {
+            amounts.keySet().forEach(p -> results.put(p.getUniqueId(), new ChargeStatus(true, 0)));
+            return new BulkResult(results);
+        }
+        boolean charge = op == JournalEntry.Operation.CHARGE;
+        Economy e = VaultProxy.unwrap(this.getEconomy());
+        double rate = charge ? this.tax() : this.bonus();
+        Map<OfflinePlayer, EconomyResponse> changed = new LinkedHashMap<>();
+        amounts.forEach((p, amount) -> {
+            if (amount == null || amount < 0) {
+                if (p.isOnline()) {
+                    Lang.sendMessage(p.getPlayer(), this.format, InternalLang.ECONOMY_FAILED);
+                }
+                results.put(p.getUniqueId(), new ChargeStatus(false, -1));
+                return;
+            }
+            double total = amount * rate;
+            EconomyResponse r = null;
+            try {
+                if (!charge || this.coversHolds(p, total)) {
+                    r = this.apply(e, p, op, amount, rate);
+                }
+            } catch (RuntimeException ex) {
+                Debugger.error(ex, "Error running economy transaction for '%s'", p.getName());
+            }
+            boolean success = CEconomy.succeeded(r);
+            if (success) {
+                changed.put(p, r);
+            } else if (charge && p.isOnline()) {
+                Lang.sendMessage(p.getPlayer(), this.format, InternalLang.ECONOMY_INSUFF, total);
+            }
+            results.put(p.getUniqueId(), new ChargeStatus(success, total));
+        });
+        changed.forEach((p, r) -> this.announce(p, r.balance, charge ? -r.amount : r.amount, 1));
+        return new BulkResult(results);
+    }
+
+    //Makes a single charge or payment against the passed economy, journaled and cached
+    private EconomyResponse apply(Economy e, OfflinePlayer p, JournalEntry.Operation op, double amount, double rate) {
+        TransactionJournal journal = this.journal;
+        JournalEntry entry = journal == null ? null : journal.begin(p, op, amount, rate);
+        double total = amount * rate;
+        EconomyResponse r = op == JournalEntry.Operation.CHARGE ? e.withdrawPlayer(p, total) : e.depositPlayer(p, total);
+        this.record(p, r);
+        if (entry != null) {
+            journal.complete(entry, CEconomy.succeeded(r), r == null ? Double.NaN : r.balance);
+        }
+        return r;
+    }
+
+    //Whether a transaction went through, treating a missing response as a failure
+    private static boolean succeeded(EconomyResponse r) {
+        return r != null && r.type != EconomyResponse.ResponseType.FAILURE;
+    }
+
+    /**
+     * Returns the {@link TransactionEngine} which runs this object's
+     * asynchronous transactions
      *
-     * @param arg An {@link EconomyChangePacket}
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link TransactionEngine} for this {@link CEconomy}
      */
-    @Override
-    public void notifyObservers(Object arg) {
-        this.setChanged();
-        if (!(arg instanceof EconomyChangePacket)) {
-            return;
+    public final TransactionEngine getTransactions() {
+        TransactionEngine back = this.transactions;
+        if (back == null) {
+            synchronized (this) {
+                back = this.transactions;
+                if (back == null) {
+                    back = new TransactionEngine(this, this.plugin);
+                    this.transactions = back;
+                }
+            }
         }
-        super.notifyObservers(arg);
-        this.observers.forEach(ob -> ob.update(this, arg));
+        return back;
+    }
+
+    /**
+     * Sets the {@link TransactionJournal} that charges and payments made
+     * through this object are recorded to, including asynchronous ones. The
+     * journal is not closed by this object
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param journal The {@link TransactionJournal}, or {@code null} to stop
+     *                recording transactions
+     */
+    public void setJournal(TransactionJournal journal) {
+        this.journal = journal;
     }
 
     /**
-     * Allows the protected {@link Observable#setChanged()} method to be called
-     * by {@link VaultProxy}
-     * <br><br>{@inheritDoc}
+     * Returns the {@link TransactionJournal} transactions are recorded to
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link TransactionJournal}, or {@code null} if transactions
+     *         are not recorded
+     */
+    public TransactionJournal getJournal() {
+        return this.journal;
+    }
+
+    /**
+     * Notifies every registered {@link EconomyObserver} of a change in balance
      *
      * @since 0.0.1
-     * @version 0.0.1
+     * @version 0.3.1
+     *
+     * @param packet The {@link EconomyChangePacket} describing the change
      */
-    @Override
-    protected void setChanged() {
-        super.setChanged();
+    public void notifyObservers(EconomyChangePacket packet) {
+        this.bus.publish(this, packet);
     }
 
     /**
-     * Returns the relevant balance for the {@link OfflinePlayer}
+     * Returns the relevant balance for the {@link OfflinePlayer}. Balances of
+     * online players are cached while this object is registered to the
+     * {@link VaultProxy}, which updates them whenever they change
      *
      * @since 0.0.1
-     * @version 0.1.0
+     * @version 0.3.1
      *
+     * @see VaultProxy#register(CEconomy)
      * @param p The {@link OfflinePlayer} for which the balanced is checked
      * @return The OfflinePlayer's balance, or -1 if
      *         {@link CEconomy#isEnabled()} returns {@code false}
@@ -241,7 +683,99 @@ public class CEconomy extends Observable {
         if (!this.isEnabled()) {
             return -1;
         }
-        return this.getEconomy().getBalance(p);
+        Double back = this.getCachedBalance(p);
+        if (back == null) {
+            if (!this.isCaching(p)) {
+                return this.getEconomy().getBalance(p);
+            }
+            long stamp = this.balances.stamp();
+            back = this.getEconomy().getBalance(p);
+            this.balances.load(p.getUniqueId(), back, stamp);
+        }
+        return back;
+    }
+
+    /**
+     * Returns the cached balance of a player, if any
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link OfflinePlayer} to look up
+     * @return The cached balance, or {@code null} if not cached
+     */
+    final Double getCachedBalance(OfflinePlayer p) {
+        return this.isCaching(p) ? this.balances.get(p.getUniqueId()) : null;
+    }
+
+    /**
+     * Caches the balance reported by a transaction's {@link EconomyResponse}
+     * in every registered {@link CEconomy} if it succeeded, or drops this
+     * object's cached balance otherwise, including when there is no response
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link OfflinePlayer} the transaction was for
+     * @param r The response of the transaction, or {@code null} if none
+     * @return {@code true} if the response's balance was cached
+     */
+    final boolean record(OfflinePlayer p, EconomyResponse r) {
+        if (!this.isCaching(p)) {
+            return false;
+        }
+        if (!CEconomy.succeeded(r)) {
+            this.balances.invalidate(p.getUniqueId());
+            return false;
+        }
+        VaultProxy.cache(p, r.balance);
+        return true;
+    }
+
+    /**
+     * Delivers a change in balance made without going through the
+     * {@link VaultProxy}. Online players' changes are relayed by the proxy,
+     * while changes to offline players, or all changes if this object is not
+     * registered to the proxy, go straight to this object's observers
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link OfflinePlayer} whose balance changed
+     * @param balance The new balance
+     * @param delta The net change in balance
+     * @param changes The number of changes made
+     */
+    final void announce(OfflinePlayer p, double balance, double delta, int changes) {
+        boolean online = p.isOnline();
+        if (online) {
+            VaultProxy.relay(p.getPlayer(), balance, delta);
+        }
+        if (!online || !VaultProxy.isRegistered(this)) {
+            this.notifyObservers(new EconomyChangePacket(p, balance, delta, changes));
+        }
+    }
+
+    /**
+     * Caches the new balance of a player, called by {@link VaultProxy} as a
+     * change is made
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link OfflinePlayer} whose balance changed
+     * @param balance The new balance
+     */
+    final void updateBalance(OfflinePlayer p, double balance) {
+        if (this.isCaching(p)) {
+            this.balances.update(p.getUniqueId(), balance);
+        }
+    }
+
+    //Balances are only coherent while VaultProxy relays changes to this object
+    private boolean isCaching(OfflinePlayer p) {
+        return p.isOnline() && VaultProxy.isRegistered(this)
+                && VaultProxy.unwrap(this.getEconomy()) != this.getEconomy();
     }
 
     /**
@@ -277,32 +811,59 @@ public class CEconomy extends Observable {
     }
 
     /**
-     * Adds an {@link EconomyObserver} to this {@link CEconomy}
+     * Adds an {@link EconomyObserver} to this {@link CEconomy}, which is
+     * notified on the thread the change is relayed from
      *
      * @since 0.2.0
-     * @version 0.2.0
+     * @version 0.3.1
      *
      * @param o The {@link EconomyObserver} to be notified when the economy state changes
      */
-    public synchronized void addObserver(EconomyObserver o) {
-        super.addObserver(o);
+    public void addObserver(EconomyObserver o) {
+        this.addObserver(o, null);
     }
 
     /**
-     * {@inheritDoc}
+     * Adds an {@link EconomyObserver} to this {@link CEconomy}, which is
+     * notified through the passed {@link Executor}
      *
-     * @since 0.2.0
-     * @version 0.2.0
+     * @since 0.3.1
+     * @version 0.3.1
      *
-     * @param o {@inheritDoc}
+     * @param o The {@link EconomyObserver} to be notified when the economy state changes
+     * @param executor The {@link Executor} to notify the observer through, or
+     *                 {@code null} to notify it on the thread the change is
+     *                 relayed from
      */
-    @Override
-    public synchronized void addObserver(Observer o) {
-        if (o instanceof EconomyObserver) {
-            this.addObserver((EconomyObserver) o);
-        } else {
-            super.addObserver(o);
-        }
+    public void addObserver(EconomyObserver o, Executor executor) {
+        Validate.notNull(o);
+        this.bus.subscribe(o, executor);
+    }
+
+    /**
+     * Removes an {@link EconomyObserver} from this {@link CEconomy}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param o The {@link EconomyObserver} to remove
+     * @return {@code true} if the observer was registered
+     */
+    public boolean removeObserver(EconomyObserver o) {
+        return this.bus.unsubscribe(o);
+    }
+
+    /**
+     * Returns the number of {@link EconomyObserver} objects registered to this
+     * {@link CEconomy}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of registered observers
+     */
+    public int countObservers() {
+        return this.bus.size();
     }
 
     /**
@@ -310,12 +871,12 @@ public class CEconomy extends Observable {
      * step to ensure values are not negative or zero
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @return The return value of {@link CEconomy#taxRate()}, or 1 if the value
      *         was negative or zero
      */
-    private double tax() {
+    final double tax() {
         double back = this.taxRate();
         if (back <= 0) {
             back = 1D;
@@ -343,12 +904,12 @@ public class CEconomy extends Observable {
      * step to ensure values are not negative or zero
      *
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      *
      * @return The return value of {@link CEconomy#bonusRate()}, or 1 if the
      *         value was negative or zero
      */
-    private double bonus() {
+    final double bonus() {
         double back = this.bonusRate();
         if (back <= 0) {
             back = 1D;
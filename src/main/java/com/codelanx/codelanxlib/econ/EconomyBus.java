@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import com.codelanx.commons.logging.Debugger;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Delivers {@link EconomyChangePacket} objects to the {@link EconomyObserver}
+ * objects of a {@link CEconomy}. Observers are held in an array which is
+ * replaced on every change, so publishing never locks and only reads a single
+ * volatile field, no matter how many observers are registered
+ * <br><br>
+ * Observers are called on the publishing thread, or through an
+ * {@link Executor} chosen when they were added. An exception thrown by one
+ * observer is logged, and does not stop the others from being notified
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+final class EconomyBus {
+
+    /** Atomically replaces {@link #registrations} */
+    private static final AtomicReferenceFieldUpdater<EconomyBus, Registration[]> REGISTRATIONS
+            = AtomicReferenceFieldUpdater.newUpdater(EconomyBus.class, Registration[].class, "registrations");
+    /** Every registered observer, never modified in place */
+    private volatile Registration[] registrations = new Registration[0];
+
+    /**
+     * Adds an {@link EconomyObserver} to this bus
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param observer The {@link EconomyObserver} to add
+     * @param executor The {@link Executor} to notify it through, or
+     *                 {@code null} to notify it on the publishing thread
+     */
+    void subscribe(EconomyObserver observer, Executor executor) {
+        Registration add = new Registration(observer, executor);
+        Registration[] old;
+        Registration[] next;
+        do {
+            old = this.registrations;
+            next = Arrays.copyOf(old, old.length + 1);
+            next[old.length] = add;
+        } while (!EconomyBus.REGISTRATIONS.compareAndSet(this, old, next));
+    }
+
+    /**
+     * Removes every registration of an {@link EconomyObserver} from this bus
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param observer The {@link EconomyObserver} to remove
+     * @return {@code true} if the observer was registered
+     */
+    boolean unsubscribe(EconomyObserver observer) {
+        Registration[] old;
+        Registration[] next;
+        do {
+            old = this.registrations;
+            next = Arrays.stream(old).filter(r -> r.observer != observer).toArray(Registration[]::new);
+            if (next.length == old.length) {
+                return false;
+            }
+        } while (!EconomyBus.REGISTRATIONS.compareAndSet(this, old, next));
+        return true;
+    }
+
+    /**
+     * Notifies every registered {@link EconomyObserver} of a change
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param source The {@link CEconomy} being observed
+     * @param packet The {@link EconomyChangePacket} describing the change
+     */
+    void publish(CEconomy source, EconomyChangePacket packet) {
+        for (Registration r : this.registrations) {
+            if (r.executor == null) {
+                EconomyBus.deliver(r.observer, source, packet);
+            } else {
+                r.executor.execute(() -> EconomyBus.deliver(r.observer, source, packet));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of registered observers
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of registrations
+     */
+    int size() {
+        return this.registrations.length;
+    }
+
+    //Calls an observer, logging anything it throws
+    private static void deliver(EconomyObserver observer, CEconomy source, EconomyChangePacket packet) {
+        try {
+            observer.update(source, packet);
+        } catch (RuntimeException ex) {
+            Debugger.error(ex, "Error notifying economy observer '%s'", observer.getClass().getName());
+        }
+    }
+
+    //An observer and the executor it is notified through
+    private static final class Registration {
+
+        private final EconomyObserver observer;
+        private final Executor executor;
+
+        private Registration(EconomyObserver observer, Executor executor) {
+            this.observer = observer;
+            this.executor = executor;
+        }
+
+    }
+
+}
@@ -26,7 +26,7 @@ import org.bukkit.OfflinePlayer;
  *
  * @since 0.0.1
  * @author 1Rogue
- * @version 0.1.0
+ * @version 0.3.1
  */
 public class EconomyChangePacket {
 
@@ -34,6 +34,10 @@ public class EconomyChangePacket {
     private final OfflinePlayer p;
     /** The new balance */
     private final double amount;
+    /** The net change in balance, or {@link Double#NaN} if unknown */
+    private final double delta;
+    /** The number of changes this packet covers */
+    private final int changes;
 
     /**
      * Constructor. Assigns parameters to fields
@@ -45,8 +49,25 @@ public class EconomyChangePacket {
      * @param amount The new balance
      */
     public EconomyChangePacket(OfflinePlayer p, double amount) {
+        this(p, amount, Double.NaN, 1);
+    }
+
+    /**
+     * Constructor. Assigns parameters to fields
+     * 
+     * @since 0.3.1
+     * @version 0.3.1
+     * 
+     * @param p The {@link OfflinePlayer} whose balance changed
+     * @param amount The new balance
+     * @param delta The net change in balance, or {@link Double#NaN} if unknown
+     * @param changes The number of changes this packet covers
+     */
+    public EconomyChangePacket(OfflinePlayer p, double amount, double delta, int changes) {
         this.p = p;
         this.amount = amount;
+        this.delta = delta;
+        this.changes = changes;
     }
 
     /**
@@ -73,4 +94,31 @@ public class EconomyChangePacket {
         return this.amount;
     }
 
+    /**
+     * Returns the net change in balance across every change this packet
+     * covers. Failed transactions do not count towards it
+     * 
+     * @since 0.3.1
+     * @version 0.3.1
+     * 
+     * @return The net change, or {@link Double#NaN} if unknown
+     */
+    public double getDelta() {
+        return this.delta;
+    }
+
+    /**
+     * Returns the number of changes this packet covers, which is above one if
+     * changes were coalesced over a server tick
+     * 
+     * @since 0.3.1
+     * @version 0.3.1
+     * 
+     * @see VaultProxy#setCoalescing(boolean)
+     * @return The number of changes
+     */
+    public int getChanges() {
+        return this.changes;
+    }
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import com.codelanx.codelanxlib.CodelanxLib;
+import com.codelanx.codelanxlib.listener.SubListener;
+import com.codelanx.commons.util.Reflections;
+import com.codelanx.commons.util.exception.Exceptions;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Evicts players from every {@link CEconomy} balance cache when they leave,
+ * as changes to offline players' balances are not relayed by
+ * {@link VaultProxy}, and sweeps lapsed {@link Hold} objects
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public class EconomyListener extends SubListener<CodelanxLib> {
+
+    /**
+     * Useless, just follows contract for {@link SubListener}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The {@link CodelanxLib} plugin
+     */
+    public EconomyListener(CodelanxLib plugin) {
+        super(plugin);
+        Exceptions.illegalInvocation(Reflections.accessedFrom(CodelanxLib.class));
+    }
+
+    /**
+     * Evicts the leaving player's cached balances, and sweeps lapsed holds
+     * so that players who left do not keep theirs forever
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param event The relevant {@link PlayerQuitEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        BalanceCache.evict(event.getPlayer().getUniqueId());
+        HoldLedger.sweep();
+    }
+
+}
@@ -19,18 +19,15 @@
  */
 package com.codelanx.codelanxlib.econ;
 
-import java.util.Observable;
-import java.util.Observer;
-
 /**
- * Provides a type to {@link Observer} for ease-of-use
+ * Receives changes in balance relayed through a {@link CEconomy}
  *
  * @since 0.2.0
  * @author 1Rogue
- * @version 0.2.0
+ * @version 0.3.1
  */
 @FunctionalInterface
-public interface EconomyObserver extends Observer {
+public interface EconomyObserver {
 
     /**
      * Called whenever the economy state changes
@@ -43,19 +40,4 @@ public interface EconomyObserver extends Observer {
      */
     void update(CEconomy o, EconomyChangePacket arg);
 
-    /**
-     * {@inheritDoc}
-     *
-     * @since 0.2.0
-     * @version 0.2.0
-     *
-     * @param o {@inheritDoc}
-     * @param arg {@inheritDoc}
-     */
-    default void update(Observable o, Object arg) {
-        if (!(o instanceof CEconomy) || !(arg instanceof EconomyChangePacket)) {
-            return;
-        }
-        update((CEconomy) o, (EconomyChangePacket) arg);
-    }
 }
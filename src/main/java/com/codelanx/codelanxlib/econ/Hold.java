@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reservation of part of a player's balance, made through
+ * {@link CEconomy#hold(OfflinePlayer, double, long, TimeUnit)}. Reserved money
+ * is not taken from the player until the hold is committed, but is set aside
+ * from the balance that other holds and {@link CEconomy#canCharge} see, so
+ * the player cannot promise it twice
+ * <br><br>
+ * A hold is committed or released at most once. One that is neither by its
+ * expiry lapses on its own, returning the money to the player's available
+ * balance
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class Hold extends ChargeStatus {
+
+    /** The hold is reserving money */
+    private static final int ACTIVE = 0;
+    /** The hold was committed */
+    private static final int COMMITTED = 1;
+    /** The hold was released */
+    private static final int RELEASED = 2;
+    /** The {@link CEconomy} the hold was made through */
+    private final CEconomy econ;
+    /** The player the money is reserved from */
+    private final OfflinePlayer player;
+    /** The amount requested, before taxes */
+    private final double base;
+    /** The tax rate applied to the amount */
+    private final double rate;
+    /** When the hold lapses, in {@link System#nanoTime()} */
+    private final long deadline;
+    /** Whether the hold is active, committed or released */
+    private final AtomicInteger state;
+
+    /**
+     * Constructor. Assigns parameters to fields
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param econ The {@link CEconomy} the hold was made through
+     * @param player The player the money is reserved from
+     * @param granted Whether the money could be reserved
+     * @param base The amount requested, before taxes
+     * @param rate The tax rate applied to the amount
+     * @param deadline When the hold lapses, in {@link System#nanoTime()}
+     */
+    Hold(CEconomy econ, OfflinePlayer player, boolean granted, double base, double rate, long deadline) {
+        super(granted, base * rate);
+        this.econ = econ;
+        this.player = player;
+        this.base = base;
+        this.rate = rate;
+        this.deadline = deadline;
+        this.state = new AtomicInteger(granted ? Hold.ACTIVE : Hold.RELEASED);
+    }
+
+    /**
+     * Takes the reserved money from the player, with a single call to the
+     * economy. The player is told if the economy refuses, such as when their
+     * balance was lowered outside of the library
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return A {@link ChargeStatus} of whether the money was taken. This
+     *         fails without calling the economy if the hold was not granted,
+     *         has lapsed, or was already committed or released
+     */
+    public ChargeStatus commit() {
+        if (this.isExpired() || !this.state.compareAndSet(Hold.ACTIVE, Hold.COMMITTED)) {
+            return new ChargeStatus(false, this.getAmount());
+        }
+        return this.econ.commit(this);
+    }
+
+    /**
+     * Returns the reserved money to the player's available balance without
+     * taking it
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if the hold was active and is now released
+     */
+    public boolean release() {
+        if (this.state.compareAndSet(Hold.ACTIVE, Hold.RELEASED)) {
+            this.econ.release(this);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether this hold still reserves money, meaning it was granted,
+     * has not lapsed, and was neither committed nor released
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if the hold is active
+     */
+    public boolean isActive() {
+        return this.state.get() == Hold.ACTIVE && !this.isExpired();
+    }
+
+    /**
+     * Returns whether this hold lapsed before being committed or released
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if the hold has expired
+     */
+    public boolean isExpired() {
+        return this.state.get() == Hold.ACTIVE && System.nanoTime() - this.deadline >= 0;
+    }
+
+    /**
+     * Returns the time left before this hold lapses
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param unit The {@link TimeUnit} to return the time in
+     * @return The time left, or 0 if the hold is no longer active
+     */
+    public long getRemaining(TimeUnit unit) {
+        return this.isActive() ? unit.convert(this.deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * Returns whether this hold still sets money aside, which includes the
+     * time between it being committed and the economy answering
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if the hold is active or being committed
+     */
+    boolean isReserving() {
+        return this.state.get() == Hold.COMMITTED || this.isActive();
+    }
+
+    /**
+     * Returns the player the money is reserved from
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The relevant {@link OfflinePlayer}
+     */
+    public OfflinePlayer getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Returns the amount requested, before taxes
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The requested amount
+     */
+    double getBase() {
+        return this.base;
+    }
+
+    /**
+     * Returns the tax rate applied to the amount
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The tax rate
+     */
+    double getRate() {
+        return this.rate;
+    }
+
+}
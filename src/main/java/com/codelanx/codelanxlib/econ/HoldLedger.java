@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the active {@link Hold} objects of a {@link CEconomy} by player.
+ * Each player's holds are only changed within a
+ * {@link ConcurrentHashMap#compute} call for that player, so holds for
+ * different players never contend, while holds for the same player are
+ * reserved one at a time against what the others left. Lapsed holds are
+ * dropped whenever a player's holds are looked at, and from every ledger
+ * whenever a player leaves, while committed holds stay until the economy has
+ * answered
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+final class HoldLedger {
+
+    /** Every live ledger, so that lapsed holds can be swept */
+    private static final Set<HoldLedger> LEDGERS = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+    /** The active holds of each player with any */
+    private final Map<UUID, List<Hold>> holds = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor. Registers the ledger to be swept
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    HoldLedger() {
+        HoldLedger.LEDGERS.add(this);
+    }
+
+    /**
+     * Adds a hold if the player's balance, less every other active hold,
+     * covers it
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @param hold The {@link Hold} to add
+     * @param balance The player's balance
+     * @return {@code true} if the hold was added
+     */
+    boolean reserve(UUID id, Hold hold, double balance) {
+        boolean[] added = {false};
+        this.holds.compute(id, (k, list) -> {
+            if (list == null) {
+                list = new ArrayList<>(2);
+            }
+            if (balance - HoldLedger.purge(list) >= hold.getAmount()) {
+                list.add(hold);
+                added[0] = true;
+            }
+            return list.isEmpty() ? null : list;
+        });
+        return added[0];
+    }
+
+    /**
+     * Removes a hold which was committed or released
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @param hold The {@link Hold} to remove
+     */
+    void remove(UUID id, Hold hold) {
+        this.holds.computeIfPresent(id, (k, list) -> {
+            list.remove(hold);
+            HoldLedger.purge(list);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Returns the total a player has reserved in active holds
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @return The reserved total, or 0 if the player has no holds
+     */
+    double getReserved(UUID id) {
+        if (!this.holds.containsKey(id)) {
+            return 0;
+        }
+        double[] total = {0};
+        this.holds.computeIfPresent(id, (k, list) -> {
+            total[0] = HoldLedger.purge(list);
+            return list.isEmpty() ? null : list;
+        });
+        return total[0];
+    }
+
+    /**
+     * Drops every lapsed or released hold from every ledger, along with the
+     * entries of players left without any. Holds which are still reserving
+     * are kept, even for players who are offline
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    static void sweep() {
+        synchronized (HoldLedger.LEDGERS) {
+            HoldLedger.LEDGERS.forEach(l -> l.holds.keySet().forEach(id -> l.getReserved(id)));
+        }
+    }
+
+    //Drops lapsed and released holds, returning the total the rest reserve
+    private static double purge(List<Hold> list) {
+        list.removeIf(h -> !h.isReserving());
+        return list.stream().mapToDouble(Hold::getAmount).sum();
+    }
+
+}
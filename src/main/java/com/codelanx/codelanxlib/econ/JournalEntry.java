@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import java.util.UUID;
+
+/**
+ * A single record in a {@link TransactionJournal}. Every transaction is
+ * recorded twice under the same sequence number: once as
+ * {@link Outcome#PENDING} before it is made, and once with its outcome after
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class JournalEntry {
+
+    /** The sequence number shared by both records of a transaction */
+    private final long sequence;
+    /** The time of the record, in milliseconds since the epoch */
+    private final long time;
+    /** The {@link UUID} of the player the transaction was made for */
+    private final UUID player;
+    /** The kind of transaction */
+    private final Operation operation;
+    /** The outcome of the transaction */
+    private final Outcome outcome;
+    /** The amount requested, before the rate is applied */
+    private final double amount;
+    /** The tax or bonus rate applied to the amount */
+    private final double rate;
+    /** The balance afterwards, or {@link Double#NaN} if pending */
+    private final double balance;
+
+    /**
+     * Constructor. Assigns parameters to fields
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sequence The sequence number of the transaction
+     * @param time The time of the record, in milliseconds since the epoch
+     * @param player The {@link UUID} of the player
+     * @param operation The kind of transaction
+     * @param outcome The outcome of the transaction
+     * @param amount The amount requested, before the rate is applied
+     * @param rate The tax or bonus rate applied to the amount
+     * @param balance The balance afterwards, or {@link Double#NaN} if pending
+     */
+    JournalEntry(long sequence, long time, UUID player, Operation operation,
+                 Outcome outcome, double amount, double rate, double balance) {
+        this.sequence = sequence;
+        this.time = time;
+        this.player = player;
+        this.operation = operation;
+        this.outcome = outcome;
+        this.amount = amount;
+        this.rate = rate;
+        this.balance = balance;
+    }
+
+    /**
+     * Returns a record of this transaction's outcome, taken now
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param success Whether the transaction went through
+     * @param balance The balance afterwards
+     * @return The completed {@link JournalEntry}
+     */
+    JournalEntry complete(boolean success, double balance) {
+        return new JournalEntry(this.sequence, System.currentTimeMillis(), this.player, this.operation,
+                success ? Outcome.SUCCESS : Outcome.FAILURE, this.amount, this.rate, balance);
+    }
+
+    /**
+     * Returns the sequence number shared by both records of a transaction
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The sequence number
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Returns the time of this record
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The time, in milliseconds since the epoch
+     */
+    public long getTime() {
+        return this.time;
+    }
+
+    /**
+     * Returns the {@link UUID} of the player the transaction was made for
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The player's {@link UUID}
+     */
+    public UUID getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Returns the kind of transaction
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link Operation}
+     */
+    public Operation getOperation() {
+        return this.operation;
+    }
+
+    /**
+     * Returns the outcome of the transaction
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The {@link Outcome}
+     */
+    public Outcome getOutcome() {
+        return this.outcome;
+    }
+
+    /**
+     * Returns the amount requested, before the rate is applied
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The requested amount
+     */
+    public double getAmount() {
+        return this.amount;
+    }
+
+    /**
+     * Returns the tax or bonus rate applied to the amount
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The rate
+     */
+    public double getRate() {
+        return this.rate;
+    }
+
+    /**
+     * Returns the change in balance this transaction makes if it succeeds,
+     * negative for charges
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The signed amount after the rate is applied
+     */
+    public double getDelta() {
+        double total = this.amount * this.rate;
+        return this.operation == Operation.CHARGE ? -total : total;
+    }
+
+    /**
+     * Returns the balance after the transaction
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The balance, or {@link Double#NaN} if pending
+     */
+    public double getBalance() {
+        return this.balance;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("#%d %tFT%<tT %s %s %s %.2f x %.4f -> %.2f", this.sequence, this.time,
+                this.player, this.operation, this.outcome, this.amount, this.rate, this.balance);
+    }
+
+    /**
+     * The kind of transaction a {@link JournalEntry} records
+     *
+     * @since 0.3.1
+     * @author 1Rogue
+     * @version 0.3.1
+     */
+    public enum Operation {
+        /** Money taken from a player */
+        CHARGE,
+        /** Money given to a player */
+        PAY;
+    }
+
+    /**
+     * The outcome a {@link JournalEntry} records
+     *
+     * @since 0.3.1
+     * @author 1Rogue
+     * @version 0.3.1
+     */
+    public enum Outcome {
+        /** The transaction is about to be made */
+        PENDING,
+        /** The transaction went through */
+        SUCCESS,
+        /** The transaction was refused by the economy */
+        FAILURE;
+    }
+
+}
@@ -0,0 +1,648 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import com.codelanx.codelanxlib.util.Players;
+import com.codelanx.commons.logging.Debugger;
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A Vault {@link Economy} kept in memory, for load testing {@link CEconomy}
+ * and {@link VaultProxy} without an economy plugin, or as a fast local
+ * economy. Balances are held as whole numbers of the currency's smallest unit
+ * in a {@link BalanceTable}, so reads and transactions never lock, and
+ * amounts are rounded to {@link #fractionalDigits()} places
+ * <br><br>
+ * Balances are snapshotted to a binary file, which is read back when the
+ * economy is created. Snapshots are taken periodically off of the main thread
+ * once {@link #register(ServicePriority)} is called, and again on
+ * {@link #close()}. A snapshot is written to a temporary file which then
+ * replaces the last one, so a crash mid-write never loses the previous
+ * snapshot. There is a single account per player across all worlds, and
+ * banks are not supported
+ * <br><br>
+ * Vault's name-based methods only resolve players who are online or have
+ * been seen by {@link Players#getCachedPlayer(String)}. Any other name is
+ * treated as having no account, and transactions against it fail
+ * <br><br>
+ * Nothing is registered with Vault unless {@link #register(ServicePriority)}
+ * is called
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public class LocalEconomy implements Economy, Closeable {
+
+    /** The default number of ticks between snapshots */
+    public static final long DEFAULT_SNAPSHOT_INTERVAL = 20L * 60 * 5;
+    /** The first bytes of a snapshot, "CLEB" */
+    private static final int MAGIC = 0x434C4542;
+    /** The version of the snapshot format */
+    private static final short FORMAT = 1;
+    /** The response to every bank method */
+    private static final String NO_BANKS = "LocalEconomy does not support banks";
+    /** The response to a name which could not be resolved to a player */
+    private static final String UNKNOWN_PLAYER = "Unknown player";
+    /** The {@link Plugin} snapshots are scheduled and registered with */
+    private final Plugin plugin;
+    /** The snapshot file, or {@code null} if not snapshotted */
+    private final File file;
+    /** The number of fractional digits amounts are rounded to */
+    private final int digits;
+    /** The number of minor units in a single unit of currency */
+    private final long scale;
+    /** The singular name of the currency */
+    private final String singular;
+    /** The plural name of the currency */
+    private final String plural;
+    /** The balance new accounts start with, in minor units */
+    private final long starting;
+    /** Every player's balance, in minor units */
+    private final BalanceTable balances = new BalanceTable();
+    /** Incremented on every change, to skip unchanged snapshots */
+    private final AtomicLong modifications = new AtomicLong();
+    /** The value of {@link #modifications} at the last snapshot */
+    private volatile long saved = 0;
+    /** Serializes snapshots */
+    private final Object saveLock = new Object();
+    /** The periodic snapshot task, or {@code null} if not registered */
+    private BukkitTask task;
+
+    /**
+     * Constructor. Creates an economy of "dollars" rounded to two places,
+     * where new accounts start with nothing
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The {@link Plugin} to schedule snapshots and register
+     *               with
+     * @param file The file to snapshot balances to, or {@code null} to keep
+     *             them only in memory
+     * @throws IOException If an existing snapshot could not be read
+     */
+    public LocalEconomy(Plugin plugin, File file) throws IOException {
+        this(plugin, file, 2, "dollar", "dollars", 0);
+    }
+
+    /**
+     * Constructor. Creates an economy and reads balances from the snapshot
+     * file, if it exists
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The {@link Plugin} to schedule snapshots and register
+     *               with
+     * @param file The file to snapshot balances to, or {@code null} to keep
+     *             them only in memory
+     * @param digits The number of fractional digits amounts are rounded to
+     * @param singular The singular name of the currency
+     * @param plural The plural name of the currency
+     * @param starting The balance new accounts start with
+     * @throws IOException If an existing snapshot could not be read
+     */
+    public LocalEconomy(Plugin plugin, File file, int digits, String singular, String plural, double starting) throws IOException {
+        if (digits < 0 || digits > 8) {
+            throw new IllegalArgumentException("Fractional digits must be between 0 and 8");
+        }
+        this.plugin = plugin;
+        this.file = file;
+        this.digits = digits;
+        this.scale = LocalEconomy.pow10(digits);
+        this.singular = singular;
+        this.plural = plural;
+        this.starting = this.toMinor(starting);
+        if (file != null && file.isFile()) {
+            this.load();
+        }
+    }
+
+    /**
+     * Registers this economy with Vault, and starts taking snapshots every
+     * {@link #DEFAULT_SNAPSHOT_INTERVAL} ticks
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see #register(ServicePriority, long)
+     * @param priority The {@link ServicePriority} to register with
+     */
+    public void register(ServicePriority priority) {
+        this.register(priority, LocalEconomy.DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Registers this economy with Vault, wrapped in a {@link VaultProxy} so
+     * that changes are relayed to {@link CEconomy} objects, and starts taking
+     * snapshots periodically off of the main thread. Other registered
+     * economies are left as they are
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param priority The {@link ServicePriority} to register with
+     * @param interval The number of ticks between snapshots
+     */
+    public synchronized void register(ServicePriority priority, long interval) {
+        Economy proxy = VaultProxy.proxy(this);
+        Bukkit.getServicesManager().register(Economy.class, proxy == null ? this : proxy, this.plugin, priority);
+        if (this.file != null && this.task == null) {
+            this.task = Bukkit.getScheduler().runTaskTimerAsynchronously(this.plugin, this::snapshot, interval, interval);
+        }
+    }
+
+    /**
+     * Unregisters this economy from Vault, both directly and through any
+     * {@link VaultProxy} wrapping it, and stops taking periodic snapshots.
+     * Whichever economy was registered before this one, if any, becomes the
+     * active economy again
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    public synchronized void unregister() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+        ServicesManager services = Bukkit.getServicesManager();
+        for (RegisteredServiceProvider<Economy> rsp : services.getRegistrations(Economy.class)) {
+            if (VaultProxy.unwrap(rsp.getProvider()) == this) {
+                services.unregister(Economy.class, rsp.getProvider());
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of every balance, if anything changed since the last
+     * one, on the calling thread
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @throws IOException If the snapshot could not be written
+     */
+    public void save() throws IOException {
+        if (this.file == null) {
+            return;
+        }
+        synchronized (this.saveLock) {
+            long mods = this.modifications.get();
+            if (mods == this.saved && this.file.isFile()) {
+                return;
+            }
+            long[][] entries = {new long[(this.balances.size() + 16) * 3]};
+            int[] count = {0};
+            this.balances.forEach((msb, lsb, bal) -> {
+                int at = count[0]++ * 3;
+                if (at == entries[0].length) { //accounts added while copying
+                    entries[0] = Arrays.copyOf(entries[0], at * 2);
+                }
+                entries[0][at] = msb;
+                entries[0][at + 1] = lsb;
+                entries[0][at + 2] = bal;
+            });
+            File tmp = new File(this.file.getPath() + ".tmp");
+            CRC32 crc = new CRC32();
+            try (FileOutputStream fos = new FileOutputStream(tmp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fos, crc)))) {
+                out.writeInt(LocalEconomy.MAGIC);
+                out.writeShort(LocalEconomy.FORMAT);
+                out.writeInt(this.digits);
+                out.writeInt(count[0]);
+                for (int i = 0; i < count[0] * 3; i++) {
+                    out.writeLong(entries[0][i]);
+                }
+                out.flush();
+                out.writeInt((int) crc.getValue());
+                out.flush();
+                fos.getFD().sync();
+            }
+            try {
+                Files.move(tmp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.saved = mods;
+        }
+    }
+
+    /**
+     * Stops taking periodic snapshots and writes a final one. This economy
+     * stays registered with Vault
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @throws IOException If the snapshot could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (this.task != null) {
+                this.task.cancel();
+                this.task = null;
+            }
+        }
+        this.save();
+    }
+
+    /**
+     * Sets a player's balance, creating their account if they have none
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param player The {@link OfflinePlayer} to set the balance of
+     * @param amount The new balance
+     */
+    public void setBalance(OfflinePlayer player, double amount) {
+        this.balances.set(player.getUniqueId(), this.toMinor(amount));
+        this.modifications.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of accounts in this economy
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of accounts
+     */
+    public int getAccounts() {
+        return this.balances.size();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.plugin == null || this.plugin.isEnabled();
+    }
+
+    @Override
+    public String getName() {
+        return "LocalEconomy";
+    }
+
+    @Override
+    public boolean hasBankSupport() {
+        return false;
+    }
+
+    @Override
+    public int fractionalDigits() {
+        return this.digits;
+    }
+
+    @Override
+    public String format(double amount) {
+        return String.format("%,." + this.digits + "f %s", amount, amount == 1 ? this.singular : this.plural);
+    }
+
+    @Override
+    public String currencyNamePlural() {
+        return this.plural;
+    }
+
+    @Override
+    public String currencyNameSingular() {
+        return this.singular;
+    }
+
+    @Override
+    public boolean hasAccount(String playerName) {
+        OfflinePlayer player = LocalEconomy.resolve(playerName);
+        return player != null && this.hasAccount(player);
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        return this.balances.get(player.getUniqueId()) != BalanceTable.NONE;
+    }
+
+    @Override
+    public boolean hasAccount(String playerName, String worldName) {
+        return this.hasAccount(playerName);
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        return this.hasAccount(player);
+    }
+
+    @Override
+    public double getBalance(String playerName) {
+        OfflinePlayer player = LocalEconomy.resolve(playerName);
+        return player == null ? 0 : this.getBalance(player);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        long bal = this.balances.get(player.getUniqueId());
+        return bal == BalanceTable.NONE ? 0 : this.toMajor(bal);
+    }
+
+    @Override
+    public double getBalance(String playerName, String world) {
+        return this.getBalance(playerName);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return this.getBalance(player);
+    }
+
+    @Override
+    public boolean has(String playerName, double amount) {
+        OfflinePlayer player = LocalEconomy.resolve(playerName);
+        return player != null && this.has(player, amount);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        long bal = this.balances.get(player.getUniqueId());
+        return (bal == BalanceTable.NONE ? 0 : bal) >= this.toMinor(amount);
+    }
+
+    @Override
+    public boolean has(String playerName, String worldName, double amount) {
+        return this.has(playerName, amount);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return this.has(player, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String playerName, double amount) {
+        OfflinePlayer player = LocalEconomy.resolve(playerName);
+        return player == null ? LocalEconomy.unknownPlayer() : this.withdrawPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        if (amount < 0) {
+            return new EconomyResponse(0, this.getBalance(player), EconomyResponse.ResponseType.FAILURE, "Cannot withdraw negative funds");
+        }
+        long bal = this.balances.add(player.getUniqueId(), -this.toMinor(amount), 0);
+        if (bal == BalanceTable.NONE) {
+            return new EconomyResponse(0, this.getBalance(player), EconomyResponse.ResponseType.FAILURE, "Insufficient funds");
+        }
+        this.modifications.incrementAndGet();
+        return new EconomyResponse(amount, this.toMajor(bal), EconomyResponse.ResponseType.SUCCESS, null);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+        return this.withdrawPlayer(playerName, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return this.withdrawPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String playerName, double amount) {
+        OfflinePlayer player = LocalEconomy.resolve(playerName);
+        return player == null ? LocalEconomy.unknownPlayer() : this.depositPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        if (amount < 0) {
+            return new EconomyResponse(0, this.getBalance(player), EconomyResponse.ResponseType.FAILURE, "Cannot deposit negative funds");
+        }
+        UUID id = player.getUniqueId();
+        long units = this.toMinor(amount);
+        long bal = this.balances.add(id, units, Long.MIN_VALUE);
+        if (bal == BalanceTable.NONE && this.balances.get(id) == BalanceTable.NONE) {
+            this.balances.create(id, this.starting); //deposits open an account
+            bal = this.balances.add(id, units, Long.MIN_VALUE);
+        }
+        if (bal == BalanceTable.NONE) {
+            return new EconomyResponse(0, this.getBalance(player), EconomyResponse.ResponseType.FAILURE, "Balance limit reached");
+        }
+        this.modifications.incrementAndGet();
+        return new EconomyResponse(amount, this.toMajor(bal), EconomyResponse.ResponseType.SUCCESS, null);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+        return this.depositPlayer(playerName, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return this.depositPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, String player) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankBalance(String name) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankHas(String name, double amount) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, String playerName) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, String playerName) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+        return LocalEconomy.noBanks();
+    }
+
+    @Override
+    public List<String> getBanks() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean createPlayerAccount(String playerName) {
+        OfflinePlayer player = LocalEconomy.resolve(playerName);
+        return player != null && this.createPlayerAccount(player);
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        if (this.balances.create(player.getUniqueId(), this.starting)) {
+            this.modifications.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean createPlayerAccount(String playerName, String worldName) {
+        return this.createPlayerAccount(playerName);
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        return this.createPlayerAccount(player);
+    }
+
+    //Takes a periodic snapshot, logging any failure
+    private void snapshot() {
+        try {
+            this.save();
+        } catch (IOException | RuntimeException ex) {
+            Debugger.error(ex, "Error writing economy snapshot to '%s'", this.file);
+        }
+    }
+
+    //Reads balances from the snapshot file, rescaling them if the digits changed
+    private void load() throws IOException {
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(new FileInputStream(this.file)), crc))) {
+            if (in.readInt() != LocalEconomy.MAGIC || in.readShort() != LocalEconomy.FORMAT) {
+                throw new IOException("'" + this.file + "' is not an economy snapshot");
+            }
+            int stored = in.readInt();
+            int count = in.readInt();
+            //header, then three longs per account, then the checksum
+            if (count < 0 || 18L + count * 24L != this.file.length()) {
+                throw new IOException("Economy snapshot '" + this.file + "' is corrupt");
+            }
+            long[] entries = new long[count * 3];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = in.readLong();
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) {
+                throw new IOException("Economy snapshot '" + this.file + "' is corrupt");
+            }
+            for (int i = 0; i < entries.length; i += 3) {
+                long bal = entries[i + 2];
+                if (stored != this.digits) {
+                    bal = Math.round(bal / (double) LocalEconomy.pow10(stored) * this.scale);
+                }
+                this.balances.set(new UUID(entries[i], entries[i + 1]), bal);
+            }
+        }
+        this.saved = this.modifications.get();
+    }
+
+    //Converts an amount to minor units
+    private long toMinor(double amount) {
+        return Math.round(amount * this.scale);
+    }
+
+    //Converts minor units to an amount
+    private double toMajor(long units) {
+        return units / (double) this.scale;
+    }
+
+    //Looks up an online or cached player by name, or null if unknown
+    private static OfflinePlayer resolve(String name) {
+        return name == null ? null : Players.getCachedPlayer(name);
+    }
+
+    //The response for a transaction against an unknown name
+    private static EconomyResponse unknownPlayer() {
+        return new EconomyResponse(0, 0, EconomyResponse.ResponseType.FAILURE, LocalEconomy.UNKNOWN_PLAYER);
+    }
+
+    //The response for every bank method
+    private static EconomyResponse noBanks() {
+        return new EconomyResponse(0, 0, EconomyResponse.ResponseType.NOT_IMPLEMENTED, LocalEconomy.NO_BANKS);
+    }
+
+    //Returns 10 to the power of the passed digits
+    private static long pow10(int digits) {
+        long back = 1;
+        for (int i = 0; i < digits; i++) {
+            back *= 10;
+        }
+        return back;
+    }
+
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import com.codelanx.codelanxlib.config.Lang;
+import com.codelanx.codelanxlib.internal.InternalLang;
+import com.codelanx.commons.logging.Debugger;
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs {@link CEconomy} charges and payments off of the main thread. Calls are
+ * queued, and every call made within a tick is run as a single batch on the
+ * next one. Within a batch, each player's transactions run in the order they
+ * were made, consecutive payments to the same player are merged into one
+ * deposit, and the player's balance is taken from the response to their last
+ * transaction. An error for one player fails only that player's transactions
+ * <br><br>
+ * Batches never overlap, so a player's transactions always run in the order
+ * they were made. Once a batch is done, back on the main thread, any failed
+ * charges are reported to their player, observers are notified once per
+ * player, and the returned {@link CompletableFuture} objects are completed
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public class TransactionEngine {
+
+    /** The {@link CEconomy} the transactions are made through */
+    private final CEconomy econ;
+    /** The {@link Plugin} batches are scheduled with */
+    private final Plugin plugin;
+    /** Transactions waiting for the next batch */
+    private final Queue<Transaction> pending = new ConcurrentLinkedQueue<>();
+    /** Whether a batch is scheduled or running */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * Constructor. Assigns parameters to fields
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param econ The {@link CEconomy} to make transactions through
+     * @param plugin The {@link Plugin} to schedule batches with
+     */
+    TransactionEngine(CEconomy econ, Plugin plugin) {
+        this.econ = econ;
+        this.plugin = plugin;
+    }
+
+    /**
+     * Takes money away from the {@link OfflinePlayer} in the next batch. The
+     * amount is multiplied by {@link CEconomy#taxRate()} when this is called,
+     * and the charge fails if, when the batch runs, it would take money
+     * reserved by the player's active {@link Hold} objects
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see CEconomy#charge(OfflinePlayer, double)
+     * @param p The {@link OfflinePlayer} to take money from
+     * @param cost The amount of money to take
+     * @return A {@link ChargeStatus} of whether the money was taken and the
+     *         amount charged. If {@link CEconomy#isEnabled()} returns
+     *         {@code false}, this is completed immediately with a successful
+     *         charge of 0
+     */
+    public CompletableFuture<ChargeStatus> charge(OfflinePlayer p, double cost) {
+        if (!this.econ.isEnabled()) {
+            return CompletableFuture.completedFuture(new ChargeStatus(true, 0));
+        }
+        if (cost < 0) {
+            if (p.isOnline()) {
+                Lang.sendMessage(p.getPlayer(), this.econ.format, InternalLang.ECONOMY_FAILED);
+            }
+            return CompletableFuture.completedFuture(new ChargeStatus(false, -1));
+        }
+        return this.submit(new Transaction(p, JournalEntry.Operation.CHARGE, cost, this.econ.tax()));
+    }
+
+    /**
+     * Gives money to the {@link OfflinePlayer} in the next batch. The amount
+     * is multiplied by {@link CEconomy#bonusRate()} when this is called
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see CEconomy#pay(OfflinePlayer, double)
+     * @param p The {@link OfflinePlayer} to give money to
+     * @param amount The amount of money to give
+     * @return A {@link ChargeStatus} of whether the money was deposited and
+     *         the amount given. If {@link CEconomy#isEnabled()} returns
+     *         {@code false}, this is completed immediately with a successful
+     *         payment of 0. A negative amount is never deposited, and is
+     *         completed immediately with a failed payment of -1
+     */
+    public CompletableFuture<ChargeStatus> pay(OfflinePlayer p, double amount) {
+        if (!this.econ.isEnabled()) {
+            return CompletableFuture.completedFuture(new ChargeStatus(true, 0));
+        }
+        if (amount < 0) {
+            if (p.isOnline()) {
+                Lang.sendMessage(p.getPlayer(), this.econ.format, InternalLang.ECONOMY_FAILED);
+            }
+            return CompletableFuture.completedFuture(new ChargeStatus(false, -1));
+        }
+        return this.submit(new Transaction(p, JournalEntry.Operation.PAY, amount, this.econ.bonus()));
+    }
+
+    /**
+     * Returns the number of transactions waiting for the next batch
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of queued transactions
+     */
+    public int getPending() {
+        return this.pending.size();
+    }
+
+    //Queues a transaction, scheduling a batch if there is none
+    private CompletableFuture<ChargeStatus> submit(Transaction t) {
+        this.pending.add(t);
+        this.schedule();
+        return t.result;
+    }
+
+    //Schedules a batch for the next tick, unless one is scheduled or running
+    private void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            if (this.plugin.isEnabled()) {
+                Bukkit.getScheduler().runTaskLaterAsynchronously(this.plugin, this::flush, 1L);
+            } else {
+                this.flush(); //disabled plugins cannot schedule tasks
+            }
+        }
+    }
+
+    //Runs every queued transaction as one batch, off of the main thread
+    private void flush() {
+        List<Transaction> batch = new ArrayList<>();
+        for (Transaction t = this.pending.poll(); t != null; t = this.pending.poll()) {
+            batch.add(t);
+        }
+        try {
+            this.process(batch);
+        } catch (RuntimeException ex) {
+            Debugger.error(ex, "Error running a batch of %d economy transactions", batch.size());
+            batch.forEach(t -> t.result.completeExceptionally(ex));
+        } finally {
+            this.scheduled.set(false);
+            if (!this.pending.isEmpty()) {
+                this.schedule(); //queued while this batch ran
+            }
+        }
+    }
+
+    //Groups a batch by player, runs it, and relays the results on the main thread
+    private void process(List<Transaction> batch) {
+        Map<UUID, List<Transaction>> players = new LinkedHashMap<>();
+        batch.forEach(t -> players.computeIfAbsent(t.player.getUniqueId(), k -> new ArrayList<>()).add(t));
+        Economy e = VaultProxy.unwrap(this.econ.getEconomy());
+        List<List<Transaction>> groups = new ArrayList<>(players.values());
+        double[] balances = new double[groups.size()];
+        for (int i = 0; i < balances.length; i++) {
+            List<Transaction> ops = groups.get(i);
+            OfflinePlayer p = ops.get(0).player;
+            try {
+                double last = this.apply(e, ops);
+                if (Double.isNaN(last)) { //the last transaction had no answer
+                    Double cached = this.econ.getCachedBalance(p);
+                    last = cached != null ? cached : e.getBalance(p);
+                }
+                balances[i] = last;
+            } catch (RuntimeException ex) {
+                Debugger.error(ex, "Error running economy transactions for '%s'", p.getName());
+                balances[i] = Double.NaN;
+            }
+        }
+        this.sync(() -> {
+            for (int i = 0; i < balances.length; i++) {
+                this.complete(groups.get(i), balances[i]);
+            }
+        });
+    }
+
+    //Runs a player's transactions in order, merging consecutive deposits, returning the last balance or NaN
+    private double apply(Economy e, List<Transaction> ops) {
+        TransactionJournal journal = this.econ.getJournal();
+        JournalEntry[] entries = new JournalEntry[ops.size()];
+        if (journal != null) {
+            for (int i = 0; i < entries.length; i++) {
+                Transaction t = ops.get(i);
+                entries[i] = journal.begin(t.player, t.operation, t.base, t.rate);
+            }
+        }
+        double last = Double.NaN;
+        for (int i = 0; i < ops.size();) {
+            Transaction t = ops.get(i);
+            boolean charge = t.operation == JournalEntry.Operation.CHARGE;
+            double amount = t.amount;
+            int end = i + 1;
+            if (!charge) {
+                for (; end < ops.size() && ops.get(end).operation == JournalEntry.Operation.PAY; end++) {
+                    amount += ops.get(end).amount;
+                }
+            }
+            boolean success;
+            boolean answered = false; //left unresolved in the journal otherwise
+            double balance = Double.NaN;
+            try {
+                if (charge && !this.econ.coversHolds(t.player, -amount)) {
+                    success = false; //the money is reserved, the economy isn't asked
+                    balance = this.econ.getBalance(t.player);
+                } else {
+                    EconomyResponse r = charge
+                            ? e.withdrawPlayer(t.player, -amount)
+                            : e.depositPlayer(t.player, amount);
+                    success = r != null && r.type != EconomyResponse.ResponseType.FAILURE;
+                    this.econ.record(t.player, r);
+                    balance = r == null ? Double.NaN : r.balance;
+                }
+                answered = true;
+            } catch (RuntimeException ex) {
+                Debugger.error(ex, "Error running economy transaction for '%s'", t.player.getName());
+                success = false;
+            }
+            last = balance;
+            for (; i < end; i++) {
+                ops.get(i).success = success;
+                if (journal != null && answered) {
+                    journal.complete(entries[i], success, balance);
+                }
+            }
+        }
+        return last;
+    }
+
+    //Reports a player's finished transactions, must be on the main thread
+    private void complete(List<Transaction> ops, double balance) {
+        OfflinePlayer p = ops.get(0).player;
+        boolean online = p.isOnline();
+        double delta = ops.stream().filter(t -> t.success).mapToDouble(t -> t.amount).sum();
+        if (!Double.isNaN(balance)) { //unknown if the player's transactions errored
+            this.econ.announce(p, balance, delta, ops.size());
+        }
+        for (Transaction t : ops) {
+            if (!t.success && t.operation == JournalEntry.Operation.CHARGE && online) {
+                Lang.sendMessage(p.getPlayer(), this.econ.format, InternalLang.ECONOMY_INSUFF, -t.amount);
+            }
+            t.result.complete(new ChargeStatus(t.success, Math.abs(t.amount)));
+        }
+    }
+
+    //Runs a task on the main thread, or immediately if the plugin is disabled
+    private void sync(Runnable task) {
+        if (this.plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(this.plugin, task);
+        } else {
+            task.run();
+        }
+    }
+
+    //A queued charge or payment, negative amounts being charges
+    private static final class Transaction {
+
+        private final OfflinePlayer player;
+        private final JournalEntry.Operation operation;
+        private final double base;
+        private final double rate;
+        private final double amount;
+        private final CompletableFuture<ChargeStatus> result = new CompletableFuture<>();
+        private boolean success;
+
+        private Transaction(OfflinePlayer player, JournalEntry.Operation operation, double base, double rate) {
+            this.player = player;
+            this.operation = operation;
+            this.base = base;
+            this.rate = rate;
+            double total = base * rate;
+            this.amount = operation == JournalEntry.Operation.CHARGE ? -total : total;
+        }
+
+    }
+
+}
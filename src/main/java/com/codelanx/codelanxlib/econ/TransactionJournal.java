@@ -0,0 +1,597 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.econ;
+
+import com.codelanx.codelanxlib.econ.JournalEntry.Operation;
+import com.codelanx.codelanxlib.econ.JournalEntry.Outcome;
+import com.codelanx.commons.logging.Debugger;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.plugin.Plugin;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only binary log of the transactions made through a
+ * {@link CEconomy}, for working out which transactions went through after a
+ * crash. Each transaction is recorded before it is made and again with its
+ * outcome, so a transaction with no outcome in the journal was cut off while
+ * it was being made
+ * <br><br>
+ * Recording a transaction only queues it. Queued records are written and
+ * forced to disk in batches by the scheduler's asynchronous workers, one batch
+ * at a time, so the main thread never waits on the disk. The cost of this
+ * group commit is a loss window: a record is only durable once its batch has
+ * been forced, usually a tick or so after it was queued, and a crash before
+ * then loses it. A transaction made in that window may have gone through
+ * with no trace in the journal at all, so the journal can only vouch for
+ * transactions older than its last completed batch. Call {@link #flush()} to
+ * close the window at a point of your choosing
+ * <br><br>
+ * If writing ever fails, the journal is marked as failed: queued records are
+ * dropped, and new ones are no longer kept, rather than piling up in memory
+ * behind a segment that cannot be written. Records are written
+ * to numbered segment files, and a new segment is started whenever the
+ * current one would grow past its maximum size, or the journal is reopened.
+ * Every record is checksummed, so a record torn by a crash ends the segment
+ * when it is read back
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public class TransactionJournal implements Closeable {
+
+    /** The default maximum size of a segment, in bytes */
+    public static final long DEFAULT_SEGMENT_SIZE = 16L << 20;
+    /** The size of a single record, in bytes */
+    public static final int RECORD_SIZE = 8 + 8 + 16 + 1 + 1 + 8 + 8 + 8 + 4;
+    /** The first bytes of every segment, "CLTJ" */
+    private static final int MAGIC = 0x434C544A;
+    /** The version of the segment format */
+    private static final short FORMAT = 1;
+    /** The size of a segment's header, in bytes */
+    private static final int HEADER_SIZE = 4 + 2;
+    /** The number of records buffered before writing */
+    private static final int BUFFERED = 256;
+    /** The name prefix of segment files */
+    private static final String PREFIX = "journal-";
+    /** The name suffix of segment files */
+    private static final String SUFFIX = ".ctj";
+    /** The {@link Plugin} batches are scheduled with */
+    private final Plugin plugin;
+    /** The folder segments are kept in */
+    private final File folder;
+    /** The maximum size of a segment, in bytes */
+    private final long segmentSize;
+    /** Records waiting to be written */
+    private final Queue<JournalEntry> pending = new ConcurrentLinkedQueue<>();
+    /** Whether a batch is scheduled or being written */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    /** Whether the journal was closed, after which records are dropped */
+    private volatile boolean closed = false;
+    /** Why writing failed, after which records are dropped, or {@code null} */
+    private volatile IOException failure;
+    /** The last sequence number handed out */
+    private final AtomicLong sequence;
+    /** Guards everything below */
+    private final Object lock = new Object();
+    /** Records are encoded here before being written */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TransactionJournal.BUFFERED * TransactionJournal.RECORD_SIZE);
+    /** Computes record checksums */
+    private final CRC32 crc = new CRC32();
+    /** The number of the current segment */
+    private int segment;
+    /** The current segment, or {@code null} once closed */
+    private FileChannel channel;
+    /** The size of the current segment, in bytes */
+    private long length;
+
+    /**
+     * Constructor. Opens a journal with segments of
+     * {@link #DEFAULT_SEGMENT_SIZE}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The {@link Plugin} to schedule writes with
+     * @param folder The folder to keep segments in
+     * @throws IOException If the folder cannot be read or a segment created
+     */
+    public TransactionJournal(Plugin plugin, File folder) throws IOException {
+        this(plugin, folder, TransactionJournal.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructor. Opens a journal in the passed folder, continuing the
+     * sequence numbers of any segments already in it in a new segment
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The {@link Plugin} to schedule writes with
+     * @param folder The folder to keep segments in
+     * @param segmentSize The size, in bytes, past which a new segment is
+     *                    started
+     * @throws IOException If the folder cannot be read or a segment created
+     */
+    public TransactionJournal(Plugin plugin, File folder, long segmentSize) throws IOException {
+        if (segmentSize < TransactionJournal.HEADER_SIZE + TransactionJournal.RECORD_SIZE) {
+            throw new IllegalArgumentException("Segment size cannot be less than a single record");
+        }
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            throw new IOException("Unable to create journal folder '" + folder + "'");
+        }
+        this.plugin = plugin;
+        this.folder = folder;
+        this.segmentSize = segmentSize;
+        File[] segments = TransactionJournal.getSegments(folder);
+        long last = 0;
+        for (int i = segments.length - 1; i >= 0 && last == 0; i--) { //an empty segment may follow a crash
+            last = TransactionJournal.read(segments[i], e -> {});
+        }
+        this.sequence = new AtomicLong(last);
+        this.segment = segments.length == 0 ? 0 : TransactionJournal.getNumber(segments[segments.length - 1]);
+        this.rotate();
+    }
+
+    /**
+     * Records that a transaction is about to be made
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link OfflinePlayer} the transaction is made for
+     * @param op The kind of transaction
+     * @param amount The amount requested, before the rate is applied
+     * @param rate The tax or bonus rate applied to the amount
+     * @return The recorded {@link JournalEntry}, to pass to
+     *         {@link #complete(JournalEntry, boolean, double)} afterwards
+     */
+    public JournalEntry begin(OfflinePlayer p, Operation op, double amount, double rate) {
+        JournalEntry e = new JournalEntry(this.sequence.incrementAndGet(), System.currentTimeMillis(),
+                p.getUniqueId(), op, Outcome.PENDING, amount, rate, Double.NaN);
+        this.submit(e);
+        return e;
+    }
+
+    /**
+     * Records the outcome of a transaction
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param entry The {@link JournalEntry} returned when the transaction
+     *              began
+     * @param success Whether the transaction went through
+     * @param balance The player's balance afterwards
+     */
+    public void complete(JournalEntry entry, boolean success, double balance) {
+        this.submit(entry.complete(success, balance));
+    }
+
+    /**
+     * Writes every queued record and forces it to disk, on the calling thread
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @throws IOException If the records could not be written, or the journal
+     *                     is closed or failed
+     */
+    public void flush() throws IOException {
+        synchronized (this.lock) {
+            if (this.failure != null) {
+                throw new IOException("Journal failed", this.failure);
+            }
+            if (this.channel == null) {
+                throw new IOException("Journal is closed");
+            }
+            int count = 0;
+            for (JournalEntry e = this.pending.poll(); e != null; e = this.pending.poll()) {
+                if (this.length + TransactionJournal.RECORD_SIZE > this.segmentSize) {
+                    this.write();
+                    this.rotate();
+                } else if (!this.buffer.hasRemaining()) {
+                    this.write();
+                }
+                this.encode(e);
+                this.length += TransactionJournal.RECORD_SIZE;
+                count++;
+            }
+            if (count > 0) {
+                this.write();
+                this.channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Writes every queued record, unless the journal failed, and closes the
+     * current segment. Records made afterwards are dropped
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @throws IOException If the records could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.lock) {
+            this.closed = true;
+            if (this.channel == null) {
+                return;
+            }
+            try {
+                if (this.failure == null) {
+                    this.flush();
+                }
+            } finally {
+                this.channel.close();
+                this.channel = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of records waiting to be written
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of queued records
+     */
+    public int getPending() {
+        return this.pending.size();
+    }
+
+    /**
+     * Returns whether writing to the journal failed, after which records are
+     * no longer kept
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if the journal failed
+     */
+    public boolean isFailed() {
+        return this.failure != null;
+    }
+
+    /**
+     * Returns the folder segments are kept in
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The journal's folder
+     */
+    public File getFolder() {
+        return this.folder;
+    }
+
+    /**
+     * Reads every record in a journal folder in the order they were written,
+     * stopping each segment at the first torn or corrupt record
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param folder The folder segments are kept in
+     * @param consumer Receives each {@link JournalEntry}
+     * @return The highest sequence number read, or 0 if there were none
+     * @throws IOException If a segment could not be read
+     */
+    public static long replay(File folder, Consumer<? super JournalEntry> consumer) throws IOException {
+        long last = 0;
+        for (File f : TransactionJournal.getSegments(folder)) {
+            last = Math.max(last, TransactionJournal.read(f, consumer));
+        }
+        return last;
+    }
+
+    /**
+     * Replays a journal folder and works out which transactions were cut off
+     * before their outcome was recorded, along with the net change each
+     * player's balance should have seen from the ones that went through
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see #replay(File, Consumer)
+     * @param folder The folder segments are kept in
+     * @return A {@link Reconciliation} of the journal
+     * @throws IOException If a segment could not be read
+     */
+    public static Reconciliation reconcile(File folder) throws IOException {
+        Map<Long, JournalEntry> open = new LinkedHashMap<>();
+        Map<UUID, Double> net = new HashMap<>();
+        long[] counts = new long[2];
+        TransactionJournal.replay(folder, e -> {
+            if (e.getOutcome() == Outcome.PENDING) {
+                open.put(e.getSequence(), e);
+                return;
+            }
+            open.remove(e.getSequence());
+            if (e.getOutcome() == Outcome.SUCCESS) {
+                net.merge(e.getPlayer(), e.getDelta(), Double::sum);
+                counts[0]++;
+            } else {
+                counts[1]++;
+            }
+        });
+        return new Reconciliation(new ArrayList<>(open.values()), net, counts[0], counts[1]);
+    }
+
+    //Queues a record, scheduling a batch if there is none
+    private void submit(JournalEntry e) {
+        if (this.closed || this.failure != null) {
+            return;
+        }
+        this.pending.add(e);
+        this.schedule();
+    }
+
+    //Schedules a batch, unless one is scheduled or being written
+    private void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            if (this.plugin.isEnabled()) {
+                Bukkit.getScheduler().runTaskAsynchronously(this.plugin, this::drain);
+            } else {
+                this.drain(); //disabled plugins cannot schedule tasks
+            }
+        }
+    }
+
+    //Writes queued records as one batch, rescheduling if more arrived meanwhile
+    private void drain() {
+        boolean written = false;
+        try {
+            this.flush();
+            written = true;
+        } catch (IOException ex) {
+            if (this.failure == null && !this.closed) {
+                this.failure = ex;
+                Debugger.error(ex, "Error writing to the transaction journal in '%s', no longer recording", this.folder);
+            }
+            this.pending.clear(); //nothing will write these, don't let them pile up
+        } finally {
+            this.scheduled.set(false);
+            if (written && !this.pending.isEmpty()) {
+                this.schedule(); //queued while this batch was written
+            }
+        }
+    }
+
+    //Appends a record to the buffer, must hold the lock
+    private void encode(JournalEntry e) {
+        int start = this.buffer.position();
+        this.buffer.putLong(e.getSequence())
+                .putLong(e.getTime())
+                .putLong(e.getPlayer().getMostSignificantBits())
+                .putLong(e.getPlayer().getLeastSignificantBits())
+                .put((byte) e.getOperation().ordinal())
+                .put((byte) e.getOutcome().ordinal())
+                .putDouble(e.getAmount())
+                .putDouble(e.getRate())
+                .putDouble(e.getBalance());
+        ByteBuffer body = this.buffer.duplicate();
+        body.position(start).limit(this.buffer.position());
+        this.crc.reset();
+        this.crc.update(body);
+        this.buffer.putInt((int) this.crc.getValue());
+    }
+
+    //Writes out the buffer, must hold the lock
+    private void write() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    //Starts the next segment, then closes the current one, must hold the lock
+    private void rotate() throws IOException {
+        File f = new File(this.folder, String.format("%s%08d%s", TransactionJournal.PREFIX, this.segment + 1, TransactionJournal.SUFFIX));
+        FileChannel next = FileChannel.open(f.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TransactionJournal.HEADER_SIZE);
+            header.putInt(TransactionJournal.MAGIC).putShort(TransactionJournal.FORMAT).flip();
+            while (header.hasRemaining()) {
+                next.write(header);
+            }
+        } catch (IOException ex) {
+            next.close(); //keep the current segment, and don't leave a headless one behind
+            f.delete();
+            throw ex;
+        }
+        FileChannel old = this.channel;
+        this.channel = next;
+        this.segment++;
+        this.length = TransactionJournal.HEADER_SIZE;
+        if (old != null) {
+            try {
+                old.force(false);
+            } finally {
+                old.close();
+            }
+        }
+    }
+
+    //Reads the valid records of a segment, returning the highest sequence read
+    private static long read(File segment, Consumer<? super JournalEntry> consumer) throws IOException {
+        try (FileChannel in = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            if (in.size() < TransactionJournal.HEADER_SIZE) {
+                return 0;
+            }
+            MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (map.getInt() != TransactionJournal.MAGIC || map.getShort() != TransactionJournal.FORMAT) {
+                throw new IOException("'" + segment + "' is not a transaction journal segment");
+            }
+            CRC32 crc = new CRC32();
+            Operation[] ops = Operation.values();
+            Outcome[] outcomes = Outcome.values();
+            long last = 0;
+            while (map.remaining() >= TransactionJournal.RECORD_SIZE) {
+                ByteBuffer body = map.slice();
+                body.limit(TransactionJournal.RECORD_SIZE - 4);
+                crc.reset();
+                crc.update(body);
+                long seq = map.getLong();
+                long time = map.getLong();
+                UUID player = new UUID(map.getLong(), map.getLong());
+                int op = map.get();
+                int outcome = map.get();
+                double amount = map.getDouble();
+                double rate = map.getDouble();
+                double balance = map.getDouble();
+                if (map.getInt() != (int) crc.getValue() || op < 0 || op >= ops.length
+                        || outcome < 0 || outcome >= outcomes.length) {
+                    break; //torn or corrupt, nothing after it can be trusted
+                }
+                consumer.accept(new JournalEntry(seq, time, player, ops[op], outcomes[outcome], amount, rate, balance));
+                last = Math.max(last, seq);
+            }
+            return last;
+        }
+    }
+
+    //Returns the segments in a folder, in the order they were written
+    private static File[] getSegments(File folder) {
+        File[] back = folder.listFiles((dir, name) -> name.startsWith(TransactionJournal.PREFIX)
+                && name.endsWith(TransactionJournal.SUFFIX)
+                && TransactionJournal.getNumber(new File(dir, name)) > 0);
+        if (back == null) {
+            return new File[0];
+        }
+        Arrays.sort(back, (a, b) -> Integer.compare(TransactionJournal.getNumber(a), TransactionJournal.getNumber(b)));
+        return back;
+    }
+
+    //Returns the number of a segment from its name, or -1 if not a segment
+    private static int getNumber(File segment) {
+        String name = segment.getName();
+        try {
+            return Integer.parseInt(name.substring(TransactionJournal.PREFIX.length(), name.length() - TransactionJournal.SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * The result of {@link TransactionJournal#reconcile(File)}
+     *
+     * @since 0.3.1
+     * @author 1Rogue
+     * @version 0.3.1
+     */
+    public static final class Reconciliation {
+
+        /** Transactions with no recorded outcome */
+        private final List<JournalEntry> unresolved;
+        /** The net change from successful transactions, by player */
+        private final Map<UUID, Double> net;
+        /** The number of successful transactions */
+        private final long succeeded;
+        /** The number of failed transactions */
+        private final long failed;
+
+        private Reconciliation(List<JournalEntry> unresolved, Map<UUID, Double> net, long succeeded, long failed) {
+            this.unresolved = Collections.unmodifiableList(unresolved);
+            this.net = Collections.unmodifiableMap(net);
+            this.succeeded = succeeded;
+            this.failed = failed;
+        }
+
+        /**
+         * Returns the transactions that began but have no recorded outcome,
+         * and so may or may not have gone through, in the order they began
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @return The {@link Outcome#PENDING} records of unresolved
+         *         transactions
+         */
+        public List<JournalEntry> getUnresolved() {
+            return this.unresolved;
+        }
+
+        /**
+         * Returns the net change in balance from successful transactions,
+         * for every player with one
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @return A map of player {@link UUID} to net change
+         */
+        public Map<UUID, Double> getNetChanges() {
+            return this.net;
+        }
+
+        /**
+         * Returns the number of transactions recorded as successful
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @return The number of successful transactions
+         */
+        public long getSucceeded() {
+            return this.succeeded;
+        }
+
+        /**
+         * Returns the number of transactions recorded as refused
+         *
+         * @since 0.3.1
+         * @version 0.3.1
+         *
+         * @return The number of failed transactions
+         */
+        public long getFailed() {
+            return this.failed;
+        }
+
+    }
+
+}
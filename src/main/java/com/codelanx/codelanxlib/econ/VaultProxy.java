@@ -19,10 +19,12 @@
  */
 package com.codelanx.codelanxlib.econ;
 
+import com.codelanx.codelanxlib.CodelanxLib;
 import com.codelanx.codelanxlib.events.EconomyChangeEvent;
 import com.codelanx.commons.logging.Debugger;
 import net.milkbowl.vault.Vault;
 import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.Server;
@@ -31,12 +33,23 @@ import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
-import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 /**
@@ -46,52 +59,74 @@ import java.util.logging.Level;
  *
  * @since 0.0.1
  * @author 1Rogue
- * @version 0.1.0
+ * @version 0.3.1
  */
 public final class VaultProxy implements InvocationHandler {
 
     /** The cached {@link Economy} class that Vault registered */
     private final Economy econ;
     /** The registered {@link CEconomy} classes listening to changes */
-    private final static Set<CEconomy> econs = new LinkedHashSet<>();
-    /** Known methods that do not need to be listened to */
-    private final static Set<String> blackListed = new LinkedHashSet<String>() {{
-        addAll(Arrays.asList(
-                "getBalance",
-                "bankBalance",
-                "bankHas",
-                "currencyNameSingular",
-                "currencyNamePlural",
-                "format",
-                "fractionalDigits",
-                "getBanks",
-                "getName",
-                "has",
-                "hasAccount",
-                "hasBankSupport",
-                "isBankMember",
-                "isBankOwner",
-                "isEnabled"
-        ));
-    }};
+    private final static Set<CEconomy> econs = new CopyOnWriteArraySet<>();
+    /** Methods which change a player's balance, by name */
+    private final static Set<String> MUTATING = new HashSet<>(Arrays.asList(
+            "withdrawPlayer",
+            "depositPlayer",
+            "createPlayerAccount"
+    ));
+    /** Changes waiting to be delivered on the next tick, by player */
+    private final static Map<UUID, Change> pending = new ConcurrentHashMap<>();
+    /** Whether a delivery of {@link #pending} is scheduled */
+    private final static AtomicBoolean scheduled = new AtomicBoolean();
+    /** Uncoalesced changes made off of the main thread, in the order made */
+    private final static Queue<Change> ordered = new ConcurrentLinkedQueue<>();
+    /** Whether a delivery of {@link #ordered} is scheduled */
+    private final static AtomicBoolean draining = new AtomicBoolean();
+    /** Whether changes are coalesced and delivered once per tick */
+    private static volatile boolean coalescing = false;
+    /** Passed in place of a {@code null} argument array */
+    private final static Object[] NO_ARGS = new Object[0];
+    /** How each {@link Economy} method is dispatched to {@link #econ} */
+    private final Map<Method, Dispatch> dispatch = new HashMap<>();
 
     /**
-     * Constructor. Holds the {@link Economy} object registered from Vault
+     * Constructor. Holds the {@link Economy} object registered from Vault, and
+     * builds a {@link MethodHandle} bound to it for every {@link Economy}
+     * method
      *
      * @since 0.0.1
-     * @version 0.0.1
+     * @version 0.3.1
      *
      * @param econ The {@link Economy} object
      */
     private VaultProxy(Economy econ) {
         this.econ = econ;
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodType generic = MethodType.methodType(Object.class, Object[].class);
+        for (Method m : Economy.class.getMethods()) {
+            try {
+                MethodHandle handle = lookup.unreflect(m).bindTo(econ)
+                        .asSpreader(Object[].class, m.getParameterCount())
+                        .asType(generic);
+                String name = m.getName();
+                int sign = name.equals("withdrawPlayer") ? -1 : name.equals("depositPlayer") ? 1 : 0;
+                this.dispatch.put(m, new Dispatch(handle, VaultProxy.MUTATING.contains(name), sign));
+            } catch (IllegalAccessException ex) {
+                Debugger.error(ex, "Unable to bind economy method '%s', calls will be reflective", m.getName());
+            }
+        }
     }
 
     /**
-     * {@inheritDoc}
+     * Calls the underlying {@link Economy} through a prebuilt
+     * {@link MethodHandle}. Calls which change an online player's balance are
+     * relayed to registered {@link CEconomy} objects, along with an
+     * {@link EconomyChangeEvent}, on the main thread
+     *
+     * @see #setCoalescing(boolean)
+     * <br><br> {@inheritDoc}
      * 
      * @since 0.0.1
-     * @version 0.1.0
+     * @version 0.3.1
      * 
      * @param proxy {@inheritDoc}
      * @param m {@inheritDoc}
@@ -101,32 +136,181 @@ public final class VaultProxy implements InvocationHandler {
      */
     @Override
     public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
-        Object back = m.invoke(this.econ, args);
-        if (args != null && args.length > 0 && !VaultProxy.blackListed.contains(m.getName())) {
-            OfflinePlayer o;
-            if (args[0] instanceof String) {
-                String s = (String) args[0];
-                o = Bukkit.getOfflinePlayer(s);
-            } else if (args[0] instanceof OfflinePlayer) {
-                o = (OfflinePlayer) args[0];
-            } else {
-                return back;
-            }
-            if (o.isOnline()) {
-                Player p = (Player) o;
-                double bal = this.econ.getBalance(p);
-                Bukkit.getServer().getPluginManager().callEvent(
-                        new EconomyChangeEvent(p, bal));
-                EconomyChangePacket packet = new EconomyChangePacket(p, bal);
-                VaultProxy.econs.forEach(e -> {
-                    e.setChanged();
-                    e.notifyObservers(packet);
-                });
+        Dispatch d = this.dispatch.get(m);
+        if (d == null) {
+            return m.invoke(this.econ, args); //Object methods
+        }
+        Object back = (Object) d.handle.invokeExact(args == null ? VaultProxy.NO_ARGS : args);
+        if (d.mutating) {
+            Player p = VaultProxy.getOnline(args[0]);
+            if (p != null) {
+                this.changed(p, back, d.sign);
             }
         }
         return back;
     }
 
+    //Caches and relays the change, using the response balance if possible
+    private void changed(Player p, Object result, int sign) {
+        EconomyResponse r = result instanceof EconomyResponse ? (EconomyResponse) result : null;
+        boolean success = r != null && r.transactionSuccess();
+        double bal = success ? r.balance : this.econ.getBalance(p);
+        VaultProxy.cache(p, bal);
+        VaultProxy.relay(p, bal, success ? sign * r.amount : 0);
+    }
+
+    /**
+     * Writes a new balance into the cache of every registered
+     * {@link CEconomy}. This is called as the change is made, never when it
+     * is delivered, so that a change delivered late cannot replace a newer
+     * balance
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link OfflinePlayer} whose balance changed
+     * @param bal The new balance
+     */
+    static void cache(OfflinePlayer p, double bal) {
+        VaultProxy.econs.forEach(e -> e.updateBalance(p, bal));
+    }
+
+    //Resolves a player argument to an online player without any lookups
+    private static Player getOnline(Object arg) {
+        if (arg instanceof OfflinePlayer) {
+            return ((OfflinePlayer) arg).getPlayer();
+        }
+        if (arg instanceof String) {
+            return Bukkit.getPlayerExact((String) arg);
+        }
+        return null;
+    }
+
+    /**
+     * Fires an {@link EconomyChangeEvent} for a changed balance and notifies
+     * every registered {@link CEconomy} on the main thread. If changes are
+     * being coalesced, the event and notification are instead merged with any
+     * others made to the player this tick, and delivered once on the next
+     * tick. Otherwise, changes are delivered in the order they were made:
+     * those made off of the main thread are queued for the next tick, and
+     * any still queued are delivered before a change made on the main thread
+     * <br><br>
+     * Cached balances are not touched, as they are updated when the change is
+     * made
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see #cache(OfflinePlayer, double)
+     * @see #setCoalescing(boolean)
+     * @param p The {@link Player} whose balance changed
+     * @param bal The new balance
+     * @param delta The change in balance
+     */
+    static void relay(Player p, double bal, double delta) {
+        if (VaultProxy.coalescing) {
+            VaultProxy.pending.merge(p.getUniqueId(), new Change(p, bal, delta, 1), Change::then);
+            if (VaultProxy.scheduled.compareAndSet(false, true)) {
+                VaultProxy.sync(VaultProxy::deliver);
+            }
+        } else if (Bukkit.isPrimaryThread()) {
+            VaultProxy.drain(); //older changes made off of the main thread go first
+            VaultProxy.fire(new Change(p, bal, delta, 1));
+        } else {
+            VaultProxy.ordered.add(new Change(p, bal, delta, 1));
+            if (VaultProxy.draining.compareAndSet(false, true)) {
+                VaultProxy.sync(VaultProxy::drain);
+            }
+        }
+    }
+
+    /**
+     * Sets whether changes relayed by the {@link VaultProxy} are coalesced.
+     * When coalescing, every change made to a player within a tick is merged
+     * and delivered once on the next tick, as a single
+     * {@link EconomyChangeEvent} and {@link EconomyChangePacket} carrying the
+     * final balance and the net change. Otherwise, every change is delivered
+     * on its own as it happens, which is the default
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param coalesce {@code true} to deliver changes once per tick
+     */
+    public static void setCoalescing(boolean coalesce) {
+        VaultProxy.coalescing = coalesce;
+    }
+
+    /**
+     * Returns whether changes relayed by the {@link VaultProxy} are coalesced
+     * and delivered once per tick
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @see #setCoalescing(boolean)
+     * @return {@code true} if changes are delivered once per tick
+     */
+    public static boolean isCoalescing() {
+        return VaultProxy.coalescing;
+    }
+
+    //Delivers every pending change, must be on the main thread
+    private static void deliver() {
+        VaultProxy.scheduled.set(false); //changes made while delivering wait for the next tick
+        for (UUID id : VaultProxy.pending.keySet()) {
+            Change c = VaultProxy.pending.remove(id);
+            if (c != null) {
+                VaultProxy.fire(c);
+            }
+        }
+    }
+
+    //Delivers every queued uncoalesced change in order, must be on the main thread
+    private static void drain() {
+        VaultProxy.draining.set(false); //changes queued after this schedule another drain
+        for (Change c = VaultProxy.ordered.poll(); c != null; c = VaultProxy.ordered.poll()) {
+            VaultProxy.fire(c);
+        }
+    }
+
+    //Fires the event and notifies observers for a change, must be on the main thread
+    private static void fire(Change c) {
+        Bukkit.getServer().getPluginManager().callEvent(new EconomyChangeEvent(c.player, c.balance, c.delta, c.changes));
+        EconomyChangePacket packet = new EconomyChangePacket(c.player, c.balance, c.delta, c.changes);
+        VaultProxy.econs.forEach(e -> e.notifyObservers(packet));
+    }
+
+    //Runs a task on the main thread, or immediately if the library is disabled
+    private static void sync(Runnable task) {
+        CodelanxLib plugin = CodelanxLib.get();
+        if (plugin != null && plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, task);
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * Returns the {@link Economy} behind a {@link VaultProxy}, so that calls
+     * made to it are not relayed individually
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param econ The possibly proxied {@link Economy}
+     * @return The proxied {@link Economy}, or the passed one if not a proxy
+     */
+    static Economy unwrap(Economy econ) {
+        if (econ != null && Proxy.isProxyClass(econ.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(econ);
+            if (handler instanceof VaultProxy) {
+                return ((VaultProxy) handler).econ;
+            }
+        }
+        return econ;
+    }
+
     /**
      * Proxies the Vault {@link Economy} class and replaces it with a
      * {@link VaultProxy} instance to handle method invocation, allowing
@@ -152,29 +336,47 @@ public final class VaultProxy implements InvocationHandler {
             if (Proxy.isProxyClass(e.getClass())) {
                 return;
             }
-            ClassLoader l = Economy.class.getClassLoader();
             Vault v = JavaPlugin.getPlugin(Vault.class);
             if (v == null) {
                 Debugger.print(Level.SEVERE, "Vault not found even after retrieving economy class. Wizardry!");
                 return;
             }
-            if (l == null) {
-                l = v.getClass().getClassLoader();
-                if (l == null) {
-                    Debugger.print(Level.SEVERE, "Unable to retrieve economy classloader");
-                    return;
-                }
+            Economy proxy = VaultProxy.proxy(e);
+            if (proxy == null) {
+                return;
             }
             server.getServicesManager().unregister(Economy.class);
-            server.getServicesManager().register(Economy.class,
-                    (Economy) Proxy.newProxyInstance(l, new Class<?>[]{Economy.class}, new VaultProxy(e)),
-                    v,
-                    priority);
+            server.getServicesManager().register(Economy.class, proxy, v, priority);
         } catch (SecurityException | IllegalArgumentException ex) {
             Debugger.error(ex, "Error proxying vault economy class");
         }
     }
 
+    /**
+     * Wraps an {@link Economy} in a {@link VaultProxy} without registering
+     * it, so that a provider can register itself already proxied rather than
+     * re-proxying whatever Vault holds
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param econ The {@link Economy} to wrap
+     * @return The proxied {@link Economy}, or {@code null} if the economy
+     *         classloader could not be found
+     */
+    static Economy proxy(Economy econ) {
+        ClassLoader l = Economy.class.getClassLoader();
+        if (l == null) {
+            Vault v = JavaPlugin.getPlugin(Vault.class);
+            l = v == null ? null : v.getClass().getClassLoader();
+            if (l == null) {
+                Debugger.print(Level.SEVERE, "Unable to retrieve economy classloader");
+                return null;
+            }
+        }
+        return (Economy) Proxy.newProxyInstance(l, new Class<?>[]{Economy.class}, new VaultProxy(econ));
+    }
+
     /**
      * Registers a {@link CEconomy} object to the {@link VaultProxy}
      * {@link InvocationHandler}.
@@ -190,4 +392,54 @@ public final class VaultProxy implements InvocationHandler {
         return VaultProxy.econs.add(econ);
     }
 
+    /**
+     * Returns whether a {@link CEconomy} object is registered to the
+     * {@link VaultProxy} and notified of changes through it
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param econ The {@link CEconomy} instance
+     * @return {@code true} if the instance is registered
+     */
+    static boolean isRegistered(CEconomy econ) {
+        return VaultProxy.econs.contains(econ);
+    }
+
+    //A prebuilt call to an Economy method, and whether it changes balances
+    private static final class Dispatch {
+
+        private final MethodHandle handle;
+        private final boolean mutating;
+        private final int sign;
+
+        private Dispatch(MethodHandle handle, boolean mutating, int sign) {
+            this.handle = handle;
+            this.mutating = mutating;
+            this.sign = sign;
+        }
+
+    }
+
+    //One or more changes to a player's balance, keeping the latest balance
+    private static final class Change {
+
+        private final Player player;
+        private final double balance;
+        private final double delta;
+        private final int changes;
+
+        private Change(Player player, double balance, double delta, int changes) {
+            this.player = player;
+            this.balance = balance;
+            this.delta = delta;
+            this.changes = changes;
+        }
+
+        private Change then(Change next) {
+            return new Change(next.player, next.balance, this.delta + next.delta, this.changes + next.changes);
+        }
+
+    }
+
 }
@@ -28,7 +28,7 @@ import org.bukkit.event.HandlerList;
  *
  * @since 0.0.1
  * @author 1Rogue
- * @version 0.1.0
+ * @version 0.3.1
  */
 public class EconomyChangeEvent extends Event {
 
@@ -38,6 +38,10 @@ public class EconomyChangeEvent extends Event {
     private final double money;
     /** The {@link OfflinePlayer} whose money changed */
     private final OfflinePlayer p;
+    /** The net change in balance, or {@link Double#NaN} if unknown */
+    private final double delta;
+    /** The number of changes this event covers */
+    private final int changes;
 
     /**
      * Constructor. Assigns the {@link OfflinePlayer} and money to fields
@@ -49,8 +53,26 @@ public class EconomyChangeEvent extends Event {
      * @param money The new balance
      */
     public EconomyChangeEvent(OfflinePlayer p, double money) {
+        this(p, money, Double.NaN, 1);
+    }
+
+    /**
+     * Constructor. Assigns the {@link OfflinePlayer}, money and the net change
+     * across one or more coalesced changes to fields
+     * 
+     * @since 0.3.1
+     * @version 0.3.1
+     * 
+     * @param p The {@link OfflinePlayer} whose balance changed
+     * @param money The new balance
+     * @param delta The net change in balance, or {@link Double#NaN} if unknown
+     * @param changes The number of changes this event covers
+     */
+    public EconomyChangeEvent(OfflinePlayer p, double money, double delta, int changes) {
         this.p = p;
         this.money = money;
+        this.delta = delta;
+        this.changes = changes;
     }
 
     /**
@@ -77,6 +99,33 @@ public class EconomyChangeEvent extends Event {
         return this.money;
     }
 
+    /**
+     * Returns the net change in balance across every change this event
+     * covers. Failed transactions do not count towards it
+     * 
+     * @since 0.3.1
+     * @version 0.3.1
+     * 
+     * @return The net change, or {@link Double#NaN} if unknown
+     */
+    public double getDelta() {
+        return this.delta;
+    }
+
+    /**
+     * Returns the number of changes this event covers, which is above one if
+     * changes were coalesced over a server tick
+     * 
+     * @since 0.3.1
+     * @version 0.3.1
+     * 
+     * @see com.codelanx.codelanxlib.econ.VaultProxy#setCoalescing(boolean)
+     * @return The number of changes
+     */
+    public int getChanges() {
+        return this.changes;
+    }
+
     /**
      * {@inheritDoc}
      * 
@@ -22,6 +22,7 @@ package com.codelanx.codelanxlib.internal;
 import com.codelanx.codelanxlib.CodelanxLib;
 import com.codelanx.codelanxlib.command.HelpCommand;
 import com.codelanx.codelanxlib.command.ReloadCommand;
+import com.codelanx.codelanxlib.command.StatsCommand;
 import com.codelanx.codelanxlib.config.Lang;
 import com.codelanx.codelanxlib.config.PluginClass;
 import com.codelanx.codelanxlib.util.Paginator;
@@ -69,6 +70,10 @@ public enum InternalLang implements Lang {
      * Relayed when a proxied CommandSender attempts executing a command
      */
     COMMAND_STATUS_NOPROXIES("command.status.no-proxies", "This command cannot be executed by a proxied sender!"),
+    /**
+     * Relayed when a command is used again before its cooldown has passed
+     */
+    COMMAND_STATUS_COOLDOWN("command.status.cooldown", "&cPlease wait %.1f seconds before using this again!"),
     /**
      * Title for the {@link HelpCommand}'s internal {@link Paginator}
      */
@@ -97,6 +102,30 @@ public enum InternalLang implements Lang {
      * Info for {@link ReloadCommand}
      */
     COMMAND_RELOAD_INFO("command.reload.info", "Reloads the plugin"),
+    /**
+     * Info for {@link StatsCommand}
+     */
+    COMMAND_STATS_INFO("command.stats.info", "Shows the slowest and most failing commands"),
+    /**
+     * Header for the slowest commands in {@link StatsCommand}
+     */
+    COMMAND_STATS_SLOWEST("command.stats.slowest", "&fSlowest commands:"),
+    /**
+     * Header for the most failing commands in {@link StatsCommand}
+     */
+    COMMAND_STATS_FAILING("command.stats.failing", "&fMost failing commands:"),
+    /**
+     * Format for a command's timings in {@link StatsCommand}
+     */
+    COMMAND_STATS_TIMEFORMAT("command.stats.format.time", "&9/%s &f- &7%d runs, avg %.2fms, p95 < %.2fms, max %.2fms"),
+    /**
+     * Format for a command's failures in {@link StatsCommand}
+     */
+    COMMAND_STATS_FAILFORMAT("command.stats.format.fail", "&9/%s &f- &7%d failed of %d runs"),
+    /**
+     * Relayed when {@link StatsCommand} has no recorded commands to show
+     */
+    COMMAND_STATS_NONE("command.stats.none", "&7No commands have been run yet"),
     /**
      * Relayed if funds for an economy transaction are insufficient
      */
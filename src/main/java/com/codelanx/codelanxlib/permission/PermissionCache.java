@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.permission;
+
+import org.bukkit.Bukkit;
+import org.bukkit.permissions.Permissible;
+import org.bukkit.permissions.Permission;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caches the work behind {@link Permissions#has(Permissible)}. The full node
+ * of every enum-based {@link Permissions} constant is built and registered
+ * with Bukkit only once, and results may optionally be cached per
+ * {@link Permissible} for a short time
+ * <br><br>
+ * Bukkit does not announce when a {@link Permissible} recalculates its
+ * permissions, so cached results are dropped after their time to live, when
+ * a player leaves or changes worlds, or when
+ * {@link PermissionCache#invalidate(Permissible)} is called. Plugins which
+ * modify permissions directly should call the latter afterwards. Expired
+ * results are also swept out once per time to live, so results held for a
+ * {@link Permissible} which is never checked again do not linger, and the
+ * nodes of a plugin's constants are dropped when it is disabled
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class PermissionCache {
+
+    /** Built nodes for enum-based {@link Permissions} constants */
+    private static final Map<Permissions, Node> NODES = new ConcurrentHashMap<>();
+    /** Source of {@link Node} indices */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    /** Cached results per {@link Permissible} */
+    private static final Map<Permissible, Results> RESULTS = new ConcurrentHashMap<>();
+    /** How long results are cached, in nanoseconds, or 0 if disabled */
+    private static volatile long ttl = 0;
+    /** When expired results are next swept out of {@link #RESULTS} */
+    private static volatile long nextSweep = System.nanoTime();
+    /** Result state: not yet checked */
+    private static final byte UNKNOWN = 0;
+    /** Result state: permission granted */
+    private static final byte GRANTED = 1;
+    /** Result state: permission denied */
+    private static final byte DENIED = 2;
+
+    private PermissionCache() {
+    }
+
+    /**
+     * Enables caching results of {@link Permissions#has(Permissible)} per
+     * {@link Permissible} for the specified amount of time
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param time How long to cache results for
+     * @param unit The {@link TimeUnit} of {@code time}
+     */
+    public static void enableResultCache(long time, TimeUnit unit) {
+        PermissionCache.ttl = Math.max(0, unit.toNanos(time));
+        PermissionCache.RESULTS.clear();
+    }
+
+    /**
+     * Disables caching results per {@link Permissible}, and drops any results
+     * that were cached
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    public static void disableResultCache() {
+        PermissionCache.ttl = 0;
+        PermissionCache.RESULTS.clear();
+    }
+
+    /**
+     * Drops any cached results for the passed {@link Permissible}. Should be
+     * called after modifying its permissions
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link Permissible} whose results are outdated
+     */
+    public static void invalidate(Permissible p) {
+        PermissionCache.RESULTS.remove(p);
+    }
+
+    /**
+     * Drops all cached results
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     */
+    public static void invalidateAll() {
+        PermissionCache.RESULTS.clear();
+    }
+
+    /**
+     * Drops the built nodes of every {@link Permissions} constant belonging
+     * to a plugin, called when it is disabled so that its classes may be
+     * unloaded
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The disabled {@link Plugin}
+     */
+    static void forget(Plugin plugin) {
+        ClassLoader loader = plugin.getClass().getClassLoader();
+        PermissionCache.NODES.keySet().removeIf(p -> p.getClass().getClassLoader() == loader);
+    }
+
+    /**
+     * Returns the full node for a {@link Permissions} constant, building and
+     * registering it to Bukkit the first time it is requested. Nodes are only
+     * retained for enum constants, other implementations are rebuilt on
+     * every call
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param perm The {@link Permissions} to build
+     * @return The full, registered permission node
+     */
+    static String getNode(Permissions perm) {
+        if (!(perm instanceof Enum)) {
+            return PermissionCache.register(perm.build());
+        }
+        return PermissionCache.intern(perm).name;
+    }
+
+    /**
+     * Checks whether a {@link Permissible} has a {@link Permissions} node,
+     * consulting the result cache if it is enabled
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link Permissible} to check
+     * @param perm The {@link Permissions} to check for
+     * @return {@code true} if the {@link Permissible} has the permission
+     */
+    static boolean has(Permissible p, Permissions perm) {
+        if (!(perm instanceof Enum)) {
+            return p.hasPermission(PermissionCache.register(perm.build()));
+        }
+        Node node = PermissionCache.intern(perm);
+        long ttl = PermissionCache.ttl;
+        if (ttl <= 0) {
+            return p.hasPermission(node.name);
+        }
+        long now = System.nanoTime();
+        Results res = PermissionCache.RESULTS.get(p);
+        if (res == null || res.expires - now < 0) {
+            res = new Results(now + ttl);
+            PermissionCache.RESULTS.put(p, res);
+            PermissionCache.sweep(now, ttl);
+        }
+        byte state = res.get(node.id);
+        if (state == PermissionCache.UNKNOWN) {
+            boolean back = p.hasPermission(node.name);
+            res.set(node.id, back ? PermissionCache.GRANTED : PermissionCache.DENIED);
+            return back;
+        }
+        return state == PermissionCache.GRANTED;
+    }
+
+    //Drops expired results, at most once per time to live
+    private static void sweep(long now, long ttl) {
+        long next = PermissionCache.nextSweep;
+        if (next - now > 0) {
+            return;
+        }
+        PermissionCache.nextSweep = now + ttl; //racing sweeps are harmless
+        PermissionCache.RESULTS.values().removeIf(r -> r.expires - now < 0);
+    }
+
+    //Returns the Node for an enum constant, building and registering it once
+    private static Node intern(Permissions perm) {
+        Node node = PermissionCache.NODES.get(perm);
+        if (node == null) {
+            node = PermissionCache.NODES.computeIfAbsent(perm,
+                    k -> new Node(PermissionCache.register(k.build()), PermissionCache.NEXT_ID.getAndIncrement()));
+        }
+        return node;
+    }
+
+    //Registers the node to Bukkit if it is not already, and interns it
+    private static String register(String fullPerm) {
+        PluginManager pm = Bukkit.getServer().getPluginManager();
+        if (pm.getPermission(fullPerm) == null) {
+            pm.addPermission(new Permission(fullPerm));
+        }
+        return fullPerm.intern();
+    }
+
+    //A built permission node and its index in result arrays
+    private static final class Node {
+
+        private final String name;
+        private final int id;
+
+        private Node(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+
+    }
+
+    //The cached results for a single Permissible, indexed by Node id
+    private static final class Results {
+
+        private final long expires;
+        private volatile byte[] states = new byte[PermissionCache.NEXT_ID.get()];
+
+        private Results(long expires) {
+            this.expires = expires;
+        }
+
+        private byte get(int id) {
+            byte[] states = this.states;
+            return id < states.length ? states[id] : PermissionCache.UNKNOWN;
+        }
+
+        //Racing writers may lose a result, which is only re-checked later
+        private void set(int id, byte state) {
+            byte[] states = this.states;
+            if (id >= states.length) {
+                states = Arrays.copyOf(states, PermissionCache.NEXT_ID.get());
+            }
+            states[id] = state;
+            this.states = states;
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.permission;
+
+import com.codelanx.codelanxlib.CodelanxLib;
+import com.codelanx.codelanxlib.listener.SubListener;
+import com.codelanx.commons.util.Reflections;
+import com.codelanx.commons.util.exception.Exceptions;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+
+/**
+ * Drops results held by the {@link PermissionCache} for players whose
+ * permissions are likely to have changed, or who are no longer online, and
+ * nodes held for plugins which were disabled
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public class PermissionListener extends SubListener<CodelanxLib> {
+
+    /**
+     * Useless, just follows contract for {@link SubListener}
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The {@link CodelanxLib} plugin
+     */
+    public PermissionListener(CodelanxLib plugin) {
+        super(plugin);
+        Exceptions.illegalInvocation(Reflections.accessedFrom(CodelanxLib.class));
+    }
+
+    /**
+     * Drops cached results for players who leave
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param event The relevant {@link PlayerQuitEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        PermissionCache.invalidate(event.getPlayer());
+    }
+
+    /**
+     * Drops cached results for players who change worlds, as permission
+     * plugins commonly grant permissions per world
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param event The relevant {@link PlayerChangedWorldEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        PermissionCache.invalidate(event.getPlayer());
+    }
+
+    /**
+     * Drops the nodes built for a plugin's permissions when it is disabled
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param event The relevant {@link PluginDisableEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDisable(PluginDisableEvent event) {
+        PermissionCache.forget(event.getPlugin());
+    }
+
+}
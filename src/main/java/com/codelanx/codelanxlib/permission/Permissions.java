@@ -20,10 +20,7 @@
 package com.codelanx.codelanxlib.permission;
 
 import org.apache.commons.lang.Validate;
-import org.bukkit.Bukkit;
 import org.bukkit.permissions.Permissible;
-import org.bukkit.permissions.Permission;
-import org.bukkit.plugin.PluginManager;
 
 /**
  * Represents a single permission value for use with checking whether or not a
@@ -32,7 +29,7 @@ import org.bukkit.plugin.PluginManager;
  *
  * @since 0.1.0
  * @author 1Rogue
- * @version 0.1.0
+ * @version 0.3.1
  */
 public interface Permissions {
 
@@ -73,24 +70,51 @@ public interface Permissions {
     }
 
     /**
-     * Determines whether or not the {@link Permissible} has this permission
+     * Determines whether or not the {@link Permissible} has this permission.
+     * For enum constants, the full node is only built and registered to
+     * Bukkit once, and the result may be cached as described by
+     * {@link PermissionCache}
      * 
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      * 
      * @param p The {@link Permissible} to check permissions for
      * @return {@code true} if the {@link Permissible} has the permissions
      */
     default public boolean has(Permissible p) {
         Validate.notNull(p, "Player cannot be null");
-        //Register permission to conform to Bukkit API
-        String fullPerm = this.build();
-        PluginManager pm = Bukkit.getServer().getPluginManager();
-        if (pm.getPermission(fullPerm) == null) {
-            pm.addPermission(new Permission(fullPerm));
+        return PermissionCache.has(p, this);
+    }
+
+    /**
+     * Returns the full permission string as it is registered to Bukkit. Unlike
+     * {@link Permissions#build()}, this is only built once for enum constants
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The full, registered permission string
+     */
+    default public String getRegisteredNode() {
+        return PermissionCache.getNode(this);
+    }
+
+    /**
+     * Builds and registers the nodes of every constant of a {@link Permissions}
+     * enum to Bukkit up front, rather than upon their first use. Meant to be
+     * called when a plugin is enabled
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param <T> The type of the {@link Permissions} enum
+     * @param type The {@link Class} of the {@link Permissions} enum
+     */
+    public static <T extends Enum<T> & Permissions> void register(Class<T> type) {
+        Validate.notNull(type, "Permissions class cannot be null");
+        for (T perm : type.getEnumConstants()) {
+            PermissionCache.getNode(perm);
         }
-        //end register
-        return p.hasPermission(fullPerm);
     }
 
 }
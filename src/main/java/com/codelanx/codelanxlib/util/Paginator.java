@@ -23,23 +23,35 @@ import com.codelanx.codelanxlib.config.Lang;
 import com.codelanx.codelanxlib.internal.InternalLang;
 import org.bukkit.ChatColor;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
 
 /**
  * Wraps text in formatted bars with a title, and allows for paging through
- * text content
+ * text content. Pages are only rendered the first time they are requested,
+ * and are then kept for any later requests
  *
  * @since 0.1.0
  * @author 1Rogue
- * @version 0.1.0
+ * @version 0.3.1
  */
 public class Paginator {
 
     private final String BAR;
-    private final List<String> pages = new ArrayList<>();
+    /** The rendered title bar, shared by every page */
+    private final String header;
+    /** The rendered footer bar, shared by every page */
+    private final String footer;
+    /** The content being paged, never copied or modified */
+    private final List<String> content;
+    /** The number of items from the content on each page */
+    private final int itemsPerPage;
+    /** Rendered pages, {@code null} until first requested */
+    private final String[] pages;
 
     /**
      * Constructor. Splits the {@code wholeText} parameter by a newline
@@ -80,12 +92,12 @@ public class Paginator {
     /**
      * Constructor. Takes a {@link List} of strings and creates formatted
      * pages which can be output to a
-     * {@link org.bukkit.command.CommandSender CommandSender}. These pages
-     * should be considered immutable as they are only rendered once and then
-     * subsequently stored.
+     * {@link org.bukkit.command.CommandSender CommandSender}. The content is
+     * copied, and these pages should be considered immutable as they are only
+     * rendered once and then subsequently stored.
      * 
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      * 
      * @param title The title for the pages
      * @param itemsPerPage The number of items from the content parameter to
@@ -93,6 +105,25 @@ public class Paginator {
      * @param content A {@link List} of strings to display
      */
     public Paginator(String title, int itemsPerPage, List<String> content) {
+        this(new ArrayList<>(content), title, itemsPerPage);
+    }
+
+    /**
+     * Internal constructor. Renders the shared bars and assigns fields without
+     * rendering any pages
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param content The {@link List} of strings to display, used as-is
+     * @param title The title for the pages
+     * @param itemsPerPage The number of items from the content parameter to
+     *                     display on a page
+     */
+    private Paginator(List<String> content, String title, int itemsPerPage) {
+        if (itemsPerPage <= 0) {
+            throw new IllegalArgumentException("Items per page must be positive");
+        }
         String s = InternalLang.PAGINATOR_BARCHAR.formatAndColor();
         if (s.isEmpty()) {
             this.BAR = "------------------------------"
@@ -105,44 +136,96 @@ public class Paginator {
             }
             this.BAR = new String(barr);
         }
-        //divide into pages
-        int pageCount = content.size() / itemsPerPage + ((content.size() % itemsPerPage) == 0 ? 0 : 1);
-        for (int i = 0; i < pageCount; i++) {
-            StringBuilder sb = new StringBuilder();
-            sb.append(this.formatTitle(title,
-                InternalLang.PAGINATOR_BARCOLOR.formatAndColor(),
-                InternalLang.PAGINATOR_TITLECOLOR.formatAndColor()));
-            sb.append('\n');
-            sb.append(InternalLang.PAGINATOR_PAGEFORMAT.formatAndColor(i + 1, pageCount));
-            sb.append('\n');
-            int stop = (i + 1) * itemsPerPage;
-            if (stop > content.size()) {
-                stop = content.size();
-            }
-            for (int w = i * itemsPerPage; w < stop; w++) {
-                sb.append(content.get(w)).append('\n');
-            }
-            sb.append(this.formatFooter(InternalLang.PAGINATOR_BARCOLOR.formatAndColor()));
-            sb.append('\n');
-            this.pages.add(sb.toString());
-        }
+        String barcolor = InternalLang.PAGINATOR_BARCOLOR.formatAndColor();
+        this.header = this.formatTitle(title, barcolor, InternalLang.PAGINATOR_TITLECOLOR.formatAndColor());
+        this.footer = this.formatFooter(barcolor);
+        this.content = content;
+        this.itemsPerPage = itemsPerPage;
+        this.pages = new String[content.size() / itemsPerPage + ((content.size() % itemsPerPage) == 0 ? 0 : 1)];
+    }
+
+    /**
+     * Creates a {@link Paginator} backed directly by the passed {@link List}.
+     * The content is not copied, so it must not be modified while the
+     * {@link Paginator} is in use. Pages are rendered as they are requested
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param title The title for the pages
+     * @param itemsPerPage The number of items from the content parameter to
+     *                     display on a page
+     * @param content A {@link List} of strings to display
+     * @return A new {@link Paginator} backed by the content
+     */
+    public static Paginator view(String title, int itemsPerPage, List<String> content) {
+        return new Paginator(content, title, itemsPerPage);
+    }
+
+    /**
+     * Creates a {@link Paginator} whose content is read by index from the
+     * passed {@link IntFunction}, which will only be called for items on
+     * pages that are requested
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param title The title for the pages
+     * @param itemsPerPage The number of items from the content parameter to
+     *                     display on a page
+     * @param size The total number of items
+     * @param content Returns the item at a given index
+     * @return A new {@link Paginator} over the content
+     */
+    public static Paginator view(String title, int itemsPerPage, int size, IntFunction<String> content) {
+        return new Paginator(new IndexedContent(size, content), title, itemsPerPage);
     }
 
     /**
      * Returns the appropriately formatted page for this {@link Paginator}
      * 
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      * 
      * @param page The page to retrieve
      * @return The page in the form of a string 
      */
     public String getPage(int page) {
         page--;
-        if (page < 0 || page > this.pages.size()) {
+        if (page < 0 || page >= this.pages.length) {
             throw new IndexOutOfBoundsException("Page " + ++page + " does not exist");
         }
-        return this.pages.get(page);
+        String back = this.pages[page];
+        if (back == null) {
+            back = this.renderPage(page);
+            this.pages[page] = back;
+        }
+        return back;
+    }
+
+    /**
+     * Renders a single page, using the shared title and footer bars
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param page The zero-based index of the page
+     * @return The rendered page
+     */
+    private String renderPage(int page) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.header);
+        sb.append('\n');
+        sb.append(InternalLang.PAGINATOR_PAGEFORMAT.formatAndColor(page + 1, this.pages.length));
+        sb.append('\n');
+        int start = page * this.itemsPerPage;
+        int stop = Math.min(start + this.itemsPerPage, this.content.size());
+        for (String line : this.content.subList(start, stop)) {
+            sb.append(line).append('\n');
+        }
+        sb.append(this.footer);
+        sb.append('\n');
+        return sb.toString();
     }
 
     /**
@@ -188,19 +271,50 @@ public class Paginator {
      * @return The number of pages
      */
     public int size() {
-        return this.pages.size();
+        return this.pages.length;
     }
 
     /**
-     * Returns a copy of all the pages in this instance
+     * Returns a copy of all the pages in this instance. This renders every
+     * page which has not yet been requested
      * 
      * @since 0.1.0
-     * @version 0.1.0
+     * @version 0.3.1
      * 
      * @return A copy of the pages
      */
     public List<String> getPages() {
-        return Collections.unmodifiableList(this.pages);
+        List<String> back = new ArrayList<>(this.pages.length);
+        for (int i = 1; i <= this.pages.length; i++) {
+            back.add(this.getPage(i));
+        }
+        return back;
+    }
+
+    //Adapts an indexed source into a List without copying it
+    private static final class IndexedContent extends AbstractList<String> implements RandomAccess {
+
+        private final int size;
+        private final IntFunction<String> source;
+
+        private IndexedContent(int size, IntFunction<String> source) {
+            this.size = size;
+            this.source = source;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= this.size) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return this.source.apply(index);
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
     }
 
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.util;
+
+import com.codelanx.codelanxlib.CodelanxLib;
+import com.codelanx.codelanxlib.listener.SubListener;
+import com.codelanx.commons.util.Reflections;
+import com.codelanx.commons.util.exception.Exceptions;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+/**
+ * Remembers the names of players as they join, so that
+ * {@link Players#getCachedPlayer(String)} can resolve them after they leave
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public class PlayerListener extends SubListener<CodelanxLib> {
+
+    /**
+     * Remembers every player already online, such as after a reload
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param plugin The {@link CodelanxLib} plugin
+     */
+    public PlayerListener(CodelanxLib plugin) {
+        super(plugin);
+        Exceptions.illegalInvocation(Reflections.accessedFrom(CodelanxLib.class));
+        Bukkit.getOnlinePlayers().forEach(Players::remember);
+    }
+
+    /**
+     * Remembers the name of a joining player
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param event The relevant {@link PlayerJoinEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Players.remember(event.getPlayer());
+    }
+
+}
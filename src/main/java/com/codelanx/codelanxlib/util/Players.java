@@ -29,6 +29,7 @@ import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.BiPredicate;
@@ -39,13 +40,108 @@ import java.util.function.BiPredicate;
  *
  * @since 0.0.1
  * @author 1Rogue
- * @version 0.1.0
+ * @version 0.3.1
  */
 public final class Players {
 
+    /** The most players remembered at once, past which the least recent go */
+    private static final int MAX_SEEN = 1024;
+    /** The current lowercase name of each remembered player, guarded by {@link #SEEN} */
+    private static final Map<UUID, String> NAMES = new HashMap<>();
+    /** The {@link UUID} of players seen online, by lowercase name, in LRU order */
+    private static final Map<String, UUID> SEEN = new LinkedHashMap<String, UUID>(16, 0.75F, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+            if (this.size() > Players.MAX_SEEN) {
+                Players.NAMES.remove(eldest.getValue(), eldest.getKey());
+                return true;
+            }
+            return false;
+        }
+
+    };
+
     private Players() {
     }
 
+    /**
+     * Returns a player by name if they are online, or were seen online since
+     * the library was enabled. Unlike {@link Bukkit#getOfflinePlayer(String)},
+     * this never reads player data from disk or performs a web lookup, so it
+     * is cheap enough to call while parsing commands. Only the most recently
+     * seen 1024 players are remembered, each under the last name
+     * they were seen with
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param name The name of the player, ignoring case
+     * @return The relevant {@link OfflinePlayer}, or {@code null} if the name
+     *         is not known
+     */
+    public static OfflinePlayer getCachedPlayer(String name) {
+        Player online = Bukkit.getPlayerExact(name);
+        if (online != null) {
+            return online;
+        }
+        UUID id;
+        synchronized (Players.SEEN) {
+            id = Players.SEEN.get(name.toLowerCase());
+        }
+        return id == null ? null : Bukkit.getOfflinePlayer(id);
+    }
+
+    /**
+     * Returns a player by {@link UUID} if they are online, or were seen online
+     * since the library was enabled. Like
+     * {@link Players#getCachedPlayer(String)}, this never reads player data
+     * from disk
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param id The {@link UUID} of the player
+     * @return The relevant {@link OfflinePlayer}, or {@code null} if the
+     *         player is not known
+     */
+    public static OfflinePlayer getCachedPlayer(UUID id) {
+        Player online = Bukkit.getPlayer(id);
+        if (online != null) {
+            return online;
+        }
+        boolean known;
+        synchronized (Players.SEEN) {
+            known = Players.NAMES.containsKey(id);
+        }
+        return known ? Bukkit.getOfflinePlayer(id) : null;
+    }
+
+    /**
+     * Remembers the name of an online player for
+     * {@link Players#getCachedPlayer(String)}, forgetting any name they were
+     * previously seen with, and any player previously seen with their name
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param p The {@link Player} who is online
+     */
+    public static void remember(Player p) {
+        String name = p.getName().toLowerCase();
+        UUID id = p.getUniqueId();
+        synchronized (Players.SEEN) {
+            String old = Players.NAMES.put(id, name);
+            if (old != null && !old.equals(name)) {
+                Players.SEEN.remove(old, id); //renamed, the old name is no longer theirs
+            }
+            UUID previous = Players.SEEN.put(name, id);
+            if (previous != null && !previous.equals(id)) {
+                Players.NAMES.remove(previous, name);
+            }
+        }
+    }
+
     /**
      * Gets any players within range of a specific location
      *
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2016 Codelanx, All Rights Reserved
+ *
+ * This work is licensed under a Creative Commons
+ * Attribution-NonCommercial-NoDerivs 3.0 Unported License.
+ *
+ * This program is protected software: You are free to distrubute your
+ * own use of this software under the terms of the Creative Commons BY-NC-ND
+ * license as published by Creative Commons in the year 2015 or as published
+ * by a later date. You may not provide the source files or provide a means
+ * of running the software outside of those licensed to use it.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * You should have received a copy of the Creative Commons BY-NC-ND license
+ * long with this program. If not, see <https://creativecommons.org/licenses/>.
+ */
+package com.codelanx.codelanxlib.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable, sorted index of strings which answers prefix queries with a
+ * pair of binary searches. Results are returned as read-only views over the
+ * index itself, so a lookup never copies or filters the candidates
+ *
+ * @since 0.3.1
+ * @author 1Rogue
+ * @version 0.3.1
+ */
+public final class PrefixIndex {
+
+    /** An index with no entries */
+    public static final PrefixIndex EMPTY = new PrefixIndex(new String[0], false);
+    /** The sorted entries */
+    private final String[] entries;
+    /** A read-only view over {@link #entries}, sublisted for results */
+    private final List<String> view;
+    /** Whether prefixes are matched without regard to case */
+    private final boolean ignoreCase;
+
+    /**
+     * Constructor. Assigns parameters to fields
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param sorted The entries, already sorted by the relevant comparator
+     * @param ignoreCase {@code true} to match prefixes regardless of case
+     */
+    private PrefixIndex(String[] sorted, boolean ignoreCase) {
+        this.entries = sorted;
+        this.view = Collections.unmodifiableList(Arrays.asList(sorted));
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Creates a new {@link PrefixIndex} from the passed strings. The values
+     * are copied, and any {@code null} elements are dropped
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param values The strings to index
+     * @param ignoreCase {@code true} to match prefixes regardless of case
+     * @return A new {@link PrefixIndex}
+     */
+    public static PrefixIndex of(Collection<String> values, boolean ignoreCase) {
+        String[] sorted = values.stream().filter(Objects::nonNull).toArray(String[]::new);
+        Arrays.sort(sorted, PrefixIndex.comparator(ignoreCase));
+        return new PrefixIndex(sorted, ignoreCase);
+    }
+
+    /**
+     * Returns all entries which start with the passed prefix, in sorted
+     * order. A {@code null} or empty prefix matches every entry
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @param prefix The prefix to match
+     * @return A read-only view over the matching entries
+     */
+    public List<String> startingWith(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return this.view;
+        }
+        int low = this.lowerBound(prefix);
+        int high = this.upperBound(prefix, low);
+        return low == high ? Collections.emptyList() : this.view.subList(low, high);
+    }
+
+    /**
+     * Returns every entry in this index, in sorted order
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return A read-only view over all entries
+     */
+    public List<String> getAll() {
+        return this.view;
+    }
+
+    /**
+     * Returns the number of entries in this index
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return this.entries.length;
+    }
+
+    /**
+     * Returns whether or not prefixes are matched without regard to case
+     *
+     * @since 0.3.1
+     * @version 0.3.1
+     *
+     * @return {@code true} if matching ignores case
+     */
+    public boolean isIgnoringCase() {
+        return this.ignoreCase;
+    }
+
+    //First index whose entry sorts at or after the prefix
+    private int lowerBound(String prefix) {
+        Comparator<String> comp = PrefixIndex.comparator(this.ignoreCase);
+        int low = 0;
+        int high = this.entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comp.compare(this.entries[mid], prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    //First index at or after start whose entry does not have the prefix
+    private int upperBound(String prefix, int start) {
+        int low = start;
+        int high = this.entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.entries[mid].regionMatches(this.ignoreCase, 0, prefix, 0, prefix.length())) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Comparator<String> comparator(boolean ignoreCase) {
+        return ignoreCase ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+    }
+
+}